@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Looks up services from several threads at once, through a global, build and project scoped registry hierarchy.
+ */
+@State(Scope.Benchmark)
+@Threads(4)
+public class DefaultServiceRegistryBenchmark {
+    private DefaultServiceRegistry globalServices;
+    private DefaultServiceRegistry buildServices;
+    private DefaultServiceRegistry projectServices;
+
+    @Setup
+    public void setup() {
+        globalServices = new DefaultServiceRegistry("global services");
+        globalServices.addProvider(new GlobalScopeServices());
+        buildServices = new DefaultServiceRegistry("build services", globalServices);
+        buildServices.addProvider(new BuildScopeServices());
+        projectServices = new DefaultServiceRegistry("project services", buildServices);
+        projectServices.addProvider(new ProjectScopeServices());
+    }
+
+    @TearDown
+    public void tearDown() {
+        projectServices.close();
+        buildServices.close();
+        globalServices.close();
+    }
+
+    @Benchmark
+    public void lookup_own_service(Blackhole bh) {
+        bh.consume(projectServices.get(ProjectService.class));
+    }
+
+    @Benchmark
+    public void lookup_parent_service(Blackhole bh) {
+        bh.consume(projectServices.get(BuildService.class));
+    }
+
+    @Benchmark
+    public void lookup_grandparent_service(Blackhole bh) {
+        bh.consume(projectServices.get(GlobalService.class));
+    }
+
+    @Benchmark
+    public void lookup_all_services(Blackhole bh) {
+        bh.consume(projectServices.getAll(Service.class));
+    }
+
+    public interface Service {
+    }
+
+    public static class GlobalService implements Service {
+    }
+
+    public static class BuildService implements Service {
+        public BuildService(GlobalService globalService) {
+        }
+    }
+
+    public static class ProjectService implements Service {
+        public ProjectService(BuildService buildService) {
+        }
+    }
+
+    private static class GlobalScopeServices {
+        GlobalService createGlobalService() {
+            return new GlobalService();
+        }
+    }
+
+    private static class BuildScopeServices {
+        BuildService createBuildService(GlobalService globalService) {
+            return new BuildService(globalService);
+        }
+    }
+
+    private static class ProjectScopeServices {
+        ProjectService createProjectService(BuildService buildService) {
+            return new ProjectService(buildService);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.gradle.internal.service;
 import org.gradle.api.Action;
 import org.gradle.api.Nullable;
 import org.gradle.api.specs.Spec;
+import org.gradle.internal.Cast;
 import org.gradle.internal.Factory;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.Stoppable;
@@ -80,14 +81,17 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
     private static final ConcurrentMap<Class<?>, RelevantMethods> METHODS_CACHE = new ConcurrentHashMap<Class<?>, RelevantMethods>();
     private static final ConcurrentMap<Type, BiFunction<ServiceProvider, LookupContext, Provider>> SERVICE_TYPE_PROVIDER_CACHE = new ConcurrentHashMap<Type, BiFunction<ServiceProvider, LookupContext, Provider>>();
-    private final Map<Type, ServiceProvider> providerCache = new HashMap<Type, ServiceProvider>();
+    private final Map<Type, ServiceProvider> providerCache = new HashMap<Type, ServiceProvider>(); // access under lock
+    // Services that have already been created, so that subsequent lookups do not need to take the lock
+    private final ConcurrentMap<Type, Object> serviceCache = new ConcurrentHashMap<Type, Object>();
+    private final ConcurrentMap<Class<?>, List<Object>> allServicesCache = new ConcurrentHashMap<Class<?>, List<Object>>();
 
     private final Object lock = new Object();
     private final OwnServices ownServices;
     private final Provider allServices;
     private final Provider parentServices;
     private final String displayName;
-    private boolean closed;
+    private volatile boolean closed;
     private boolean mutable = true; // access under lock
 
     public DefaultServiceRegistry() {
@@ -357,6 +361,8 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
                 CompositeStoppable.stoppable(allServices).stop();
             } finally {
                 closed = true;
+                serviceCache.clear();
+                allServicesCache.clear();
             }
         }
     }
@@ -389,6 +395,12 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
     }
 
     public <T> List<T> getAll(Class<T> serviceType) throws ServiceLookupException {
+        if (!closed) {
+            List<Object> cached = allServicesCache.get(serviceType);
+            if (cached != null) {
+                return Cast.uncheckedCast(new ArrayList<Object>(cached));
+            }
+        }
         synchronized (lock) {
             mutable = false;
             if (closed) {
@@ -401,6 +413,7 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
             for (ServiceProvider provider : providers) {
                 services.add(serviceType.cast(provider.get()));
             }
+            allServicesCache.put(serviceType, new ArrayList<Object>(services));
             return services;
         }
     }
@@ -415,6 +428,12 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
 
 
     private Object doGet(Type serviceType) throws IllegalArgumentException {
+        if (!closed) {
+            Object service = serviceCache.get(serviceType);
+            if (service != null) {
+                return service;
+            }
+        }
         synchronized (lock) {
             mutable = false;
             if (closed) {
@@ -425,7 +444,9 @@ public class DefaultServiceRegistry implements ServiceRegistry, Closeable {
                 provider = getServiceProvider(serviceType);
                 providerCache.put(serviceType, provider);
             }
-            return provider.get();
+            Object service = provider.get();
+            serviceCache.put(serviceType, service);
+            return service;
         }
     }
 
@@ -1203,6 +1203,113 @@ class DefaultServiceRegistryTest extends Specification {
         thrown IllegalStateException
     }
 
+    def "repeated lookups return the same service instances"() {
+        def registry = new DefaultServiceRegistry()
+        registry.register({ ServiceRegistration registration ->
+            registration.add(TestServiceImpl)
+        } as Action)
+
+        when:
+        def service = registry.get(TestService)
+        def all = registry.getAll(TestService)
+
+        then:
+        registry.get(TestService).is(service)
+        registry.get(TestService as Type).is(service)
+        registry.get(TestServiceImpl).is(service)
+        all.size() == 1
+        all[0].is(service)
+        registry.getAll(TestService).size() == 1
+        registry.getAll(TestService)[0].is(service)
+    }
+
+    def "all services lookup returns a new list each time"() {
+        when:
+        def first = registry.getAll(String)
+        first.clear()
+        first.add("other")
+        def second = registry.getAll(String)
+
+        then:
+        second == ["12"]
+        !second.is(first)
+
+        when:
+        second.clear()
+
+        then:
+        registry.getAll(String) == ["12"]
+    }
+
+    def "cannot lookup services that were already looked up before the registry was closed"() {
+        given:
+        registry.get(Integer)
+        registry.get(Integer)
+        registry.get(Integer as Type)
+        registry.getAll(Integer)
+        registry.getAll(Integer)
+        registry.close()
+
+        when:
+        registry.get(Integer)
+
+        then:
+        IllegalStateException e = thrown()
+        e.message == "Cannot locate service of type Integer, as TestRegistry has been closed."
+
+        when:
+        registry.get(Integer as Type)
+
+        then:
+        e = thrown()
+        e.message == "Cannot locate service of type Integer, as TestRegistry has been closed."
+
+        when:
+        registry.getAll(Integer)
+
+        then:
+        e = thrown()
+        e.message == "Cannot locate service of type Integer, as TestRegistry has been closed."
+    }
+
+    def "repeated lookups in parent and child registries return the services of the registry that provides them"() {
+        def parent = new DefaultServiceRegistry()
+        parent.register({ ServiceRegistration registration ->
+            registration.add(TestServiceImpl)
+        } as Action)
+        def child = new DefaultServiceRegistry(parent)
+        child.register({ ServiceRegistration registration ->
+            registration.add(ServiceWithDependency)
+        } as Action)
+
+        when:
+        def fromParent = parent.get(TestService)
+        def fromChild = child.get(TestService)
+        def dependent = child.get(ServiceWithDependency)
+
+        then:
+        fromChild.is(fromParent)
+        dependent.service.is(fromParent)
+        child.get(TestService).is(fromParent)
+        parent.get(TestService).is(fromParent)
+        child.get(ServiceWithDependency).is(dependent)
+        child.getAll(TestService) == [fromParent]
+        parent.getAll(TestService) == [fromParent]
+
+        when:
+        parent.get(ServiceWithDependency)
+
+        then:
+        thrown(UnknownServiceException)
+
+        when:
+        child.close()
+
+        then:
+        parent.get(TestService).is(fromParent)
+        parent.getAll(TestService) == [fromParent]
+    }
+
     private Factory<Number> numberFactory
     private Factory<String> stringFactory
     private Factory<? super BigDecimal> superBigDecimalFactory
@@ -36,4 +36,8 @@ class AbstractPmdPluginVersionIntegrationTest extends MultiVersionIntegrationSpe
         return !TestPrecondition.WINDOWS.fulfilled || VersionNumber.parse("5.5.1") <= versionNumber
     }
 
+    static boolean supportsIncrementalAnalysis() {
+        return VersionNumber.parse("5.6.0") <= versionNumber
+    }
+
 }
@@ -18,10 +18,12 @@ package org.gradle.api.plugins.quality
 import org.gradle.util.TestPrecondition
 import org.gradle.util.VersionNumber
 import org.hamcrest.Matcher
+import spock.lang.Unroll
 
 import static org.gradle.util.Matchers.containsLine
 import static org.hamcrest.Matchers.containsString
 import static org.hamcrest.Matchers.not
+import static org.junit.Assume.assumeFalse
 import static org.junit.Assume.assumeTrue
 
 class PmdPluginVersionIntegrationTest extends AbstractPmdPluginVersionIntegrationTest {
@@ -199,6 +201,131 @@ class PmdPluginVersionIntegrationTest extends AbstractPmdPluginVersionIntegratio
         output.contains "\tEnsure you override both equals() and hashCode()"
     }
 
+    def "incremental analysis caches results in the incremental cache file"() {
+        assumeTrue(supportsIncrementalAnalysis())
+        goodCode()
+        enableIncrementalAnalysis()
+
+        expect:
+        succeeds("pmdMain")
+        file("build/tmp/pmdMain/incremental.cache").exists()
+        file("build/reports/pmd/main.xml").exists()
+    }
+
+    def "incremental analysis does not use a cache file when disabled"() {
+        goodCode()
+
+        expect:
+        succeeds("pmdMain")
+        !file("build/tmp/pmdMain/incremental.cache").exists()
+    }
+
+    def "incremental analysis reuses the results of unchanged files"() {
+        assumeTrue(supportsIncrementalAnalysis())
+        enableIncrementalAnalysis()
+        buildFile << """
+            pmd {
+                ignoreFailures = true
+            }
+        """
+        file("src/main/java/org/gradle/Class1.java") <<
+            "package org.gradle; class Class1 { public boolean equals(Object arg) { return java.lang.Boolean.valueOf(true); } }"
+        file("src/main/java/org/gradle/Class2.java") <<
+            "package org.gradle; class Class2 { public boolean isFoo(Object arg) { return true; } }"
+
+        when:
+        succeeds("pmdMain")
+
+        then:
+        file("build/reports/pmd/main.xml").assertContents(containsClass("org.gradle.Class1"))
+        file("build/reports/pmd/main.xml").assertContents(not(containsClass("org.gradle.Class2")))
+
+        when:
+        file("src/main/java/org/gradle/Class2.java").text =
+            "package org.gradle; class Class2 { public boolean equals(Object arg) { return java.lang.Boolean.valueOf(true); } }"
+        succeeds("pmdMain")
+
+        then:
+        executedAndNotSkipped(":pmdMain")
+        file("build/tmp/pmdMain/incremental.cache").exists()
+        file("build/reports/pmd/main.xml").assertContents(containsClass("org.gradle.Class1"))
+        file("build/reports/pmd/main.xml").assertContents(containsClass("org.gradle.Class2"))
+    }
+
+    def "incremental analysis is rejected for PMD versions older than 5.6.0"() {
+        assumeFalse(supportsIncrementalAnalysis())
+        goodCode()
+        enableIncrementalAnalysis()
+
+        expect:
+        fails("pmdMain")
+        failure.assertHasCause("Incremental analysis only supports PMD 5.6.0 and newer. Please upgrade PMD or disable incremental analysis.")
+    }
+
+    @Unroll
+    def "determines PMD version for incremental analysis from jar with #qualifier version"() {
+        goodCode()
+        enableIncrementalAnalysis()
+        renamePmdJar("pmd-core-${version}-${qualifier}.jar")
+
+        expect:
+        if (supportsIncrementalAnalysis()) {
+            succeeds("pmdMain")
+            assert file("build/tmp/pmdMain/incremental.cache").exists()
+        } else {
+            fails("pmdMain")
+            failure.assertHasCause("Incremental analysis only supports PMD 5.6.0 and newer. Please upgrade PMD or disable incremental analysis.")
+        }
+
+        where:
+        qualifier << ["SNAPSHOT", "rc1"]
+    }
+
+    def "incremental analysis is not rejected when the PMD version cannot be determined"() {
+        assumeTrue(supportsIncrementalAnalysis())
+        goodCode()
+        enableIncrementalAnalysis()
+        renamePmdJar("renamed.jar")
+
+        expect:
+        succeeds("pmdMain")
+        file("build/tmp/pmdMain/incremental.cache").exists()
+    }
+
+    def "incremental analysis is left to PMD to reject when the version of an older PMD cannot be determined"() {
+        assumeFalse(supportsIncrementalAnalysis())
+        goodCode()
+        enableIncrementalAnalysis()
+        renamePmdJar("renamed.jar")
+
+        expect:
+        fails("pmdMain")
+        !errorOutput.contains("Incremental analysis only supports PMD 5.6.0")
+    }
+
+    private void enableIncrementalAnalysis() {
+        buildFile << """
+            pmd {
+                incrementalAnalysis = true
+            }
+        """
+    }
+
+    private void renamePmdJar(String jarName) {
+        buildFile << """
+            task copyPmdClasspath(type: Copy) {
+                from configurations.pmd
+                into "\$buildDir/pmdClasspath"
+                rename { it ==~ /pmd-(core-)?[0-9].*\\.jar/ ? '${jarName}' : it }
+            }
+
+            pmdMain {
+                dependsOn copyPmdClasspath
+                pmdClasspath = fileTree("\$buildDir/pmdClasspath")
+            }
+        """
+    }
+
     private static Matcher<String> containsClass(String className) {
         containsLine(containsString(className.replace(".", File.separator)))
     }
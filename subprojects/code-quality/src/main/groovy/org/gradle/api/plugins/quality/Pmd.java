@@ -32,6 +32,7 @@ import org.gradle.api.tasks.CacheableTask;
 import org.gradle.api.tasks.Classpath;
 import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.Nested;
 import org.gradle.api.tasks.Optional;
 import org.gradle.api.tasks.PathSensitive;
@@ -45,6 +46,7 @@ import org.gradle.internal.nativeintegration.services.NativeServices;
 import org.gradle.internal.reflect.Instantiator;
 
 import javax.inject.Inject;
+import java.io.File;
 import java.util.List;
 
 /**
@@ -66,6 +68,7 @@ public class Pmd extends SourceTask implements VerificationTask, Reporting<PmdRe
     private int rulePriority;
     private boolean consoleOutput;
     private FileCollection classpath;
+    private boolean incrementalAnalysis;
 
 
     public Pmd() {
@@ -280,4 +283,33 @@ public class Pmd extends SourceTask implements VerificationTask, Reporting<PmdRe
         this.classpath = classpath;
     }
 
+    /**
+     * Whether or not to use PMD's incremental analysis. When enabled, PMD caches the analysis results of each file in {@link #getIncrementalCacheFile()},
+     * and only analyzes the files that have changed since the previous execution, along with all files when the rule sets or the PMD version change.
+     *
+     * This requires PMD 5.6.0 or newer.
+     *
+     * @since 4.0
+     */
+    @Internal
+    @Incubating
+    public boolean isIncrementalAnalysis() {
+        return incrementalAnalysis;
+    }
+
+    public void setIncrementalAnalysis(boolean incrementalAnalysis) {
+        this.incrementalAnalysis = incrementalAnalysis;
+    }
+
+    /**
+     * The file used by PMD to cache the analysis results between executions, when incremental analysis is enabled.
+     *
+     * @since 4.0
+     */
+    @Internal
+    @Incubating
+    public File getIncrementalCacheFile() {
+        return new File(getTemporaryDir(), "incremental.cache");
+    }
+
 }
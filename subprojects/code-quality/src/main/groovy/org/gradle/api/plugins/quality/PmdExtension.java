@@ -38,6 +38,7 @@ public class PmdExtension extends CodeQualityExtension {
     private TextResource ruleSetConfig;
     private FileCollection ruleSetFiles;
     private boolean consoleOutput;
+    private boolean incrementalAnalysis;
 
     public PmdExtension(Project project) {
         this.project = project;
@@ -171,4 +172,26 @@ public class PmdExtension extends CodeQualityExtension {
     public void setConsoleOutput(boolean consoleOutput) {
         this.consoleOutput = consoleOutput;
     }
+
+    /**
+     * Whether or not to use PMD's incremental analysis, which caches the analysis results of each file so that only changed files are analyzed again. Requires PMD 5.6.0 or newer.
+     *
+     * Example: incrementalAnalysis = true
+     *
+     * @since 4.0
+     */
+    @Incubating
+    public boolean isIncrementalAnalysis() {
+        return incrementalAnalysis;
+    }
+
+    /**
+     * Sets whether or not to use PMD's incremental analysis.
+     *
+     * @since 4.0
+     */
+    @Incubating
+    public void setIncrementalAnalysis(boolean incrementalAnalysis) {
+        this.incrementalAnalysis = incrementalAnalysis;
+    }
 }
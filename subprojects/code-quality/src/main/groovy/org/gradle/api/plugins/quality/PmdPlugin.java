@@ -138,6 +138,12 @@ public class PmdPlugin extends AbstractCodeQualityPlugin<Pmd> {
                 return extension.getRulePriority();
             }
         });
+        taskMapping.map("incrementalAnalysis", new Callable<Boolean>() {
+            @Override
+            public Boolean call() {
+                return extension.isIncrementalAnalysis();
+            }
+        });
         taskMapping.map("consoleOutput", new Callable<Boolean>() {
             @Override
             public Boolean call() {
@@ -20,6 +20,7 @@ import org.gradle.api.GradleException
 import org.gradle.api.file.FileCollection
 import org.gradle.api.plugins.quality.Pmd
 import org.gradle.internal.logging.ConsoleRenderer
+import org.gradle.util.VersionNumber
 
 abstract class PmdInvoker {
     static void invoke(Pmd pmdTask) {
@@ -37,6 +38,7 @@ abstract class PmdInvoker {
         def stdOutIsAttachedToTerminal = pmdTask.stdOutIsAttachedToTerminal()
         def ignoreFailures = pmdTask.ignoreFailures
         def logger = pmdTask.logger
+        def incrementalAnalysis = pmdTask.incrementalAnalysis
 
         def prePmd5 = pmdClasspath.any {
             it.name ==~ /pmd-([1-4]\.[0-9\.]+)\.jar/
@@ -57,6 +59,15 @@ abstract class PmdInvoker {
 
         antPmdArgs["minimumPriority"] = rulePriority
 
+        if (incrementalAnalysis) {
+            // When the version cannot be determined from the classpath, let PMD fail if it does not support the cache
+            def pmdVersion = determinePmdVersion(pmdClasspath)
+            if (pmdVersion != VersionNumber.UNKNOWN && pmdVersion.baseVersion < VersionNumber.parse("5.6.0")) {
+                throw new GradleException("Incremental analysis only supports PMD 5.6.0 and newer. Please upgrade PMD or disable incremental analysis.")
+            }
+            antPmdArgs["cacheLocation"] = pmdTask.incrementalCacheFile
+        }
+
         antBuilder.withClasspath(pmdClasspath).execute { a ->
             ant.taskdef(name: 'pmd', classname: 'net.sourceforge.pmd.ant.PMDTask')
             ant.pmd(antPmdArgs) {
@@ -108,4 +119,16 @@ abstract class PmdInvoker {
             }
         }
     }
+
+    private static VersionNumber determinePmdVersion(FileCollection pmdClasspath) {
+        // PMD 5.2.0 and later ship as pmd-core-<version>.jar, earlier versions as pmd-<version>.jar
+        def pmdJarPattern = /pmd-(?:core-)?(\d.*)\.jar/
+        def pmdJar = pmdClasspath.find {
+            it.name ==~ pmdJarPattern
+        }
+        if (pmdJar == null) {
+            return VersionNumber.UNKNOWN
+        }
+        return VersionNumber.parse((pmdJar.name =~ pmdJarPattern)[0][1])
+    }
 }
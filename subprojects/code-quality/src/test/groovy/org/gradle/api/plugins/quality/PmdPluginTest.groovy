@@ -54,6 +54,7 @@ class PmdPluginTest extends AbstractProjectBuilderSpec {
         extension.reportsDir == project.file("build/reports/pmd")
         !extension.ignoreFailures
         extension.rulePriority == 5
+        !extension.incrementalAnalysis
     }
 
     def "configures pmd task for each source set"() {
@@ -107,6 +108,7 @@ class PmdPluginTest extends AbstractProjectBuilderSpec {
             assert reports.html.destination == project.file("build/reports/pmd/${sourceSet.name}.html")
             assert ignoreFailures == false
             assert rulePriority == 5
+            assert incrementalAnalysis == false
         }
     }
 
@@ -154,6 +156,7 @@ class PmdPluginTest extends AbstractProjectBuilderSpec {
             reportsDir = project.file("pmd-reports")
             ignoreFailures = true
             rulePriority = 3
+            incrementalAnalysis = true
         }
 
         expect:
@@ -178,6 +181,7 @@ class PmdPluginTest extends AbstractProjectBuilderSpec {
             assert reports.html.destination == project.file("pmd-reports/${sourceSet.name}.html")
             assert ignoreFailures == true
             assert rulePriority == 3
+            assert incrementalAnalysis == true
         }
     }
 
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.gradle.api.internal.changedetection.rules.TaskStateChange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a file collection snapshot with a previous snapshot of the same files, when none, one or all of the files have changed.
+ */
+@State(Scope.Benchmark)
+public class FileCollectionSnapshotComparisonBenchmark {
+    @Param({"ORDERED", "UNORDERED", "OUTPUT"})
+    TaskFilePropertyCompareStrategy compareStrategy;
+
+    @Param({"10000"})
+    int fileCount;
+
+    @Param({"unchanged", "one_modified", "all_modified"})
+    String change;
+
+    private FileCollectionSnapshot previous;
+    private FileCollectionSnapshot current;
+
+    @Setup
+    public void setup() {
+        previous = snapshot(0);
+        if (change.equals("unchanged")) {
+            current = snapshot(0);
+        } else if (change.equals("one_modified")) {
+            current = snapshot(1);
+        } else if (change.equals("all_modified")) {
+            current = snapshot(fileCount);
+        } else {
+            throw new IllegalArgumentException("Unknown change: " + change);
+        }
+    }
+
+    /**
+     * Creates a snapshot in which the content of the given number of files, starting from the last one, differs from the original content.
+     */
+    private FileCollectionSnapshot snapshot(int modifiedCount) {
+        Map<String, NormalizedFileSnapshot> snapshots = new LinkedHashMap<String, NormalizedFileSnapshot>();
+        for (int i = 0; i < fileCount; i++) {
+            String relativePath = "dir" + (i % 100) + "/file" + i + ".txt";
+            String content = i < fileCount - modifiedCount ? "original " + i : "modified " + i;
+            HashCode hash = Hashing.md5().hashBytes(content.getBytes());
+            snapshots.put("/root/" + relativePath, new DefaultNormalizedFileSnapshot(relativePath, new FileHashSnapshot(hash)));
+        }
+        return new DefaultFileCollectionSnapshot(snapshots, compareStrategy, false);
+    }
+
+    @Benchmark
+    public void compare(Blackhole bh) {
+        Iterator<TaskStateChange> changes = current.iterateContentChangesSince(previous, "Input");
+        while (changes.hasNext()) {
+            bh.consume(changes.next());
+        }
+    }
+}
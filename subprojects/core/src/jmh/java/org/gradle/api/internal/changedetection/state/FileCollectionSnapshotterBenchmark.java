@@ -0,0 +1,180 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import com.google.common.io.Files;
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.api.internal.file.collections.DefaultDirectoryFileTreeFactory;
+import org.gradle.api.internal.file.collections.DirectoryFileTreeFactory;
+import org.gradle.api.internal.file.collections.SimpleFileCollection;
+import org.gradle.api.internal.hash.DefaultFileHasher;
+import org.gradle.api.internal.hash.FileHasher;
+import org.gradle.api.resources.normalization.ResourceNormalizationHandler;
+import org.gradle.api.resources.normalization.internal.DefaultResourceNormalizationHandler;
+import org.gradle.api.resources.normalization.internal.DefaultRuntimeClasspathNormalizationStrategy;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.classpath.CachedJarFileStore;
+import org.gradle.internal.nativeintegration.filesystem.FileSystem;
+import org.gradle.internal.nativeintegration.services.NativeServices;
+import org.gradle.internal.serialize.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Snapshots generated directory trees of various shapes, both when all file contents need to be hashed and when the hashes are already cached.
+ */
+@State(Scope.Benchmark)
+public class FileCollectionSnapshotterBenchmark {
+    @Param({"flat", "wide", "deep"})
+    String shape;
+
+    @Param({"1000", "10000"})
+    int fileCount;
+
+    private File workDir;
+    private File root;
+    private StringInterner stringInterner;
+    private FileSystem fileSystem;
+    private DirectoryFileTreeFactory directoryFileTreeFactory;
+    private ResourceNormalizationHandler normalizationHandler;
+    private FileHasher hasher;
+    private FileHasher cachingHasher;
+
+    @Setup
+    public void setup() throws IOException {
+        workDir = Files.createTempDir();
+        NativeServices.initialize(new File(workDir, "native"));
+        root = new File(workDir, "tree");
+        generateTree();
+
+        stringInterner = new StringInterner();
+        fileSystem = NativeServices.getInstance().get(FileSystem.class);
+        directoryFileTreeFactory = new DefaultDirectoryFileTreeFactory();
+        normalizationHandler = new DefaultResourceNormalizationHandler(new DefaultRuntimeClasspathNormalizationStrategy());
+        hasher = new DefaultFileHasher();
+        cachingHasher = new CachingFileHasher(hasher, new InMemoryTaskHistoryStore(), stringInterner, new BuildScopeFileTimeStampInspector(new File(workDir, "timestamps")), "fileHashes", fileSystem);
+
+        // Populate the hash cache, as it would be for a build where the inputs are up-to-date
+        snapshot(cachingHasher);
+    }
+
+    @TearDown
+    public void tearDown() {
+        deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public FileCollectionSnapshot snapshot_hashing_contents() {
+        return snapshot(hasher);
+    }
+
+    @Benchmark
+    public FileCollectionSnapshot snapshot_with_cached_hashes() {
+        return snapshot(cachingHasher);
+    }
+
+    private FileCollectionSnapshot snapshot(FileHasher fileHasher) {
+        // Use a new file system mirror each time, so that the tree is scanned for every invocation
+        DefaultFileSystemSnapshotter fileSystemSnapshotter = new DefaultFileSystemSnapshotter(fileHasher, stringInterner, fileSystem, directoryFileTreeFactory, new DefaultFileSystemMirror(Collections.<CachedJarFileStore>emptyList()));
+        DefaultGenericFileCollectionSnapshotter snapshotter = new DefaultGenericFileCollectionSnapshotter(stringInterner, directoryFileTreeFactory, fileSystemSnapshotter);
+        return snapshotter.snapshot(new SimpleFileCollection(root), TaskFilePropertyCompareStrategy.UNORDERED, TaskFilePropertySnapshotNormalizationStrategy.RELATIVE, normalizationHandler);
+    }
+
+    private void generateTree() throws IOException {
+        for (int i = 0; i < fileCount; i++) {
+            File file = new File(root, pathFor(i));
+            file.getParentFile().mkdirs();
+            Files.write(("content of file " + i).getBytes("UTF-8"), file);
+        }
+    }
+
+    private String pathFor(int index) {
+        if (shape.equals("flat")) {
+            return "file" + index + ".txt";
+        }
+        if (shape.equals("wide")) {
+            return "dir" + (index % 100) + "/file" + index + ".txt";
+        }
+        if (shape.equals("deep")) {
+            // One directory level per decimal digit of the index, so each directory has up to 10 children
+            StringBuilder path = new StringBuilder();
+            String digits = String.valueOf(fileCount + index);
+            for (int i = 1; i < digits.length(); i++) {
+                path.append("dir").append(digits.charAt(i)).append('/');
+            }
+            return path.append("file").append(index).append(".txt").toString();
+        }
+        throw new IllegalArgumentException("Unknown tree shape: " + shape);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static class InMemoryTaskHistoryStore implements TaskHistoryStore {
+        @Override
+        public <K, V> PersistentIndexedCache<K, V> createCache(String name, Class<K> keyType, Serializer<V> valueSerializer, int maxEntriesToKeepInMemory, boolean cacheInMemoryForShortLivedProcesses) {
+            return new InMemoryCache<K, V>();
+        }
+    }
+
+    private static class InMemoryCache<K, V> implements PersistentIndexedCache<K, V> {
+        private final ConcurrentMap<K, V> entries = new ConcurrentHashMap<K, V>();
+
+        @Override
+        public V get(K key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public V get(K key, Transformer<? extends V, ? super K> producer) {
+            V value = entries.get(key);
+            if (value == null) {
+                value = producer.transform(key);
+                entries.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        public void put(K key, V value) {
+            entries.put(key, value);
+        }
+
+        @Override
+        public void remove(K key) {
+            entries.remove(key);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.hash.Hashing;
+import org.gradle.api.internal.cache.StringInterner;
+import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes and reads the file snapshots and input properties that are persisted as task history.
+ */
+@State(Scope.Benchmark)
+public class TaskHistorySerializationBenchmark {
+    @Param({"100", "10000"})
+    int fileCount;
+
+    @Param({"10"})
+    int inputPropertyCount;
+
+    private final Serializer<DefaultFileCollectionSnapshot> fileSnapshotSerializer = new DefaultFileCollectionSnapshot.SerializerImpl(new StringInterner());
+    private final Serializer<ImmutableMap<String, ValueSnapshot>> inputPropertiesSerializer = new InputPropertiesSerializer();
+
+    private DefaultFileCollectionSnapshot fileSnapshot;
+    private ImmutableSortedMap<String, ValueSnapshot> inputProperties;
+    private byte[] serializedFileSnapshot;
+    private byte[] serializedInputProperties;
+
+    @Setup
+    public void setup() throws Exception {
+        Map<String, NormalizedFileSnapshot> snapshots = new LinkedHashMap<String, NormalizedFileSnapshot>();
+        for (int i = 0; i < fileCount; i++) {
+            String relativePath = "dir" + (i % 100) + "/file" + i + ".txt";
+            snapshots.put("/root/" + relativePath, new DefaultNormalizedFileSnapshot(relativePath, new FileHashSnapshot(Hashing.md5().hashInt(i), i)));
+        }
+        fileSnapshot = new DefaultFileCollectionSnapshot(snapshots, TaskFilePropertyCompareStrategy.UNORDERED, false);
+
+        ImmutableSortedMap.Builder<String, ValueSnapshot> properties = ImmutableSortedMap.naturalOrder();
+        for (int i = 0; i < inputPropertyCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    properties.put("string" + i, new StringValueSnapshot("value " + i));
+                    break;
+                case 1:
+                    properties.put("integer" + i, new IntegerValueSnapshot(i));
+                    break;
+                case 2:
+                    properties.put("file" + i, new FileValueSnapshot(new File("/root/file" + i)));
+                    break;
+                default:
+                    properties.put("list" + i, new ListValueSnapshot(new ValueSnapshot[]{new StringValueSnapshot("a"), new StringValueSnapshot("b"), new IntegerValueSnapshot(i)}));
+                    break;
+            }
+        }
+        inputProperties = properties.build();
+
+        serializedFileSnapshot = write(fileSnapshotSerializer, fileSnapshot);
+        serializedInputProperties = write(inputPropertiesSerializer, inputProperties);
+    }
+
+    @Benchmark
+    public byte[] write_file_snapshot() throws Exception {
+        return write(fileSnapshotSerializer, fileSnapshot);
+    }
+
+    @Benchmark
+    public DefaultFileCollectionSnapshot read_file_snapshot() throws Exception {
+        return read(fileSnapshotSerializer, serializedFileSnapshot);
+    }
+
+    @Benchmark
+    public byte[] write_input_properties() throws Exception {
+        return write(inputPropertiesSerializer, inputProperties);
+    }
+
+    @Benchmark
+    public ImmutableMap<String, ValueSnapshot> read_input_properties() throws Exception {
+        return read(inputPropertiesSerializer, serializedInputProperties);
+    }
+
+    private static <T> byte[] write(Serializer<T> serializer, T value) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        serializer.write(encoder, value);
+        encoder.flush();
+        return outputStream.toByteArray();
+    }
+
+    private static <T> T read(Serializer<T> serializer, byte[] serialized) throws Exception {
+        return serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(serialized)));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.file.copy;
+
+import org.apache.tools.zip.ZipEntry;
+import org.apache.tools.zip.ZipOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Compares writing an archive through {@link DefaultZipCompressor} with writing it through a plain Ant {@link ZipOutputStream}.
+ */
+@State(Scope.Benchmark)
+public class ZipCompressorBenchmark {
+    @Param({"1000"})
+    int entryCount;
+
+    @Param({"1024", "102400"})
+    int entrySize;
+
+    @Param({"8", "0"})
+    int compressionMethod;
+
+    private byte[] content;
+    private File archive;
+
+    @Setup
+    public void prepare() throws IOException {
+        // Text-like content, so that the deflater has some work to do
+        Random random = new Random(1234);
+        content = new byte[entrySize];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(16));
+        }
+        archive = File.createTempFile("jmh", ".zip");
+    }
+
+    @TearDown
+    public void tearDown() {
+        archive.delete();
+    }
+
+    @Benchmark
+    public void ant_zip_output_stream() throws IOException {
+        ZipOutputStream outputStream = new ZipOutputStream(archive);
+        outputStream.setMethod(compressionMethod);
+        writeEntries(outputStream);
+    }
+
+    @Benchmark
+    public void default_zip_compressor() throws IOException {
+        writeEntries(new DefaultZipCompressor(false, compressionMethod).createArchiveOutputStream(archive));
+    }
+
+    private void writeEntries(ZipOutputStream outputStream) throws IOException {
+        try {
+            for (int i = 0; i < entryCount; i++) {
+                outputStream.putNextEntry(new ZipEntry("dir" + (i % 10) + "/entry" + i + ".txt"));
+                outputStream.write(content);
+                outputStream.closeEntry();
+            }
+        } finally {
+            outputStream.close();
+        }
+    }
+}
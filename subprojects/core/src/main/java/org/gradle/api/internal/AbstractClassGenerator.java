@@ -17,11 +17,10 @@
 package org.gradle.api.internal;
 
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.SetMultimap;
 import groovy.lang.Closure;
 import groovy.lang.GroovyObject;
-import org.apache.commons.collections.map.AbstractReferenceMap;
-import org.apache.commons.collections.map.ReferenceMap;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
 import org.gradle.api.NonExtensible;
@@ -41,13 +40,14 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -64,7 +64,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * </ul>
  */
 public abstract class AbstractClassGenerator implements ClassGenerator {
-    private static final Map<Class<?>, Map<Class<?>, Class<?>>> GENERATED_CLASSES = new HashMap<Class<?>, Map<Class<?>, Class<?>>>();
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Class<?>>> GENERATED_CLASSES = new ConcurrentHashMap<Class<?>, ConcurrentMap<Class<?>, Class<?>>>();
     private static final Lock CACHE_LOCK = new ReentrantLock();
     private static final Collection<String> SKIP_PROPERTIES = Arrays.asList("class", "metaClass", "conventionMapping", "convention", "asDynamicObject", "extensions");
 
@@ -73,23 +73,39 @@ public abstract class AbstractClassGenerator implements ClassGenerator {
     }
 
     public <T> Class<? extends T> generate(Class<T> type) {
+        ConcurrentMap<Class<?>, Class<?>> cache = getCache();
+
+        // Classes that have already been generated are looked up without locking
+        Class<?> generatedClass = cache.get(type);
+        if (generatedClass != null) {
+            return generatedClass.asSubclass(type);
+        }
+
         try {
             CACHE_LOCK.lock();
-            return generateUnderLock(type);
+            return generateUnderLock(type, cache);
         } finally {
             CACHE_LOCK.unlock();
         }
     }
 
-    private <T> Class<? extends T> generateUnderLock(Class<T> type) {
-        Map<Class<?>, Class<?>> cache = GENERATED_CLASSES.get(getClass());
+    private ConcurrentMap<Class<?>, Class<?>> getCache() {
+        ConcurrentMap<Class<?>, Class<?>> cache = GENERATED_CLASSES.get(getClass());
         if (cache == null) {
             // WeakHashMap won't work here. It keeps a strong reference to the mapping value, which is the generated class in this case
             // However, the generated class has a strong reference to the source class (by extending it), so the keys will always be
             // strongly reachable while this Class is strongly reachable. Use weak references for both key and value of the mapping instead.
-            cache = new ReferenceMap(AbstractReferenceMap.WEAK, AbstractReferenceMap.WEAK);
-            GENERATED_CLASSES.put(getClass(), cache);
+            ConcurrentMap<Class<?>, Class<?>> newCache = new MapMaker().weakKeys().weakValues().makeMap();
+            cache = GENERATED_CLASSES.putIfAbsent(getClass(), newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
         }
+        return cache;
+    }
+
+    private <T> Class<? extends T> generateUnderLock(Class<T> type, Map<Class<?>, Class<?>> cache) {
+        // Another thread may have generated the class while this thread was waiting for the lock
         Class<?> generatedClass = cache.get(type);
         if (generatedClass != null) {
             return generatedClass.asSubclass(type);
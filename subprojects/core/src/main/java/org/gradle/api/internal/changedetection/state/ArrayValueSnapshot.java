@@ -18,6 +18,7 @@ package org.gradle.api.internal.changedetection.state;
 
 import org.gradle.caching.internal.BuildCacheHasher;
 
+import java.lang.reflect.Array;
 import java.util.Arrays;
 
 public class ArrayValueSnapshot implements ValueSnapshot {
@@ -43,14 +44,38 @@ public class ArrayValueSnapshot implements ValueSnapshot {
 
     @Override
     public ValueSnapshot snapshot(Object value, ValueSnapshotter snapshotter) {
-        ValueSnapshot other = snapshotter.snapshot(value);
-        if (other instanceof ArrayValueSnapshot) {
-            ArrayValueSnapshot otherArray = (ArrayValueSnapshot) other;
-            if (Arrays.equals(elements, otherArray.elements)) {
-                return this;
+        if (value == null || !value.getClass().isArray()) {
+            return snapshotter.snapshot(value);
+        }
+
+        // Find first position where values are different
+        int length = Array.getLength(value);
+        int pos = 0;
+        int len = Math.min(elements.length, length);
+        ValueSnapshot newElement = null;
+        for (; pos < len; pos++) {
+            ValueSnapshot element = elements[pos];
+            newElement = snapshotter.snapshot(Array.get(value, pos), element);
+            if (element != newElement) {
+                break;
             }
         }
-        return other;
+        if (pos == elements.length && pos == length) {
+            // Same size and no differences
+            return this;
+        }
+
+        // Copy the snapshots whose values are the same, then snapshot remaining values
+        ValueSnapshot[] newElements = new ValueSnapshot[length];
+        System.arraycopy(elements, 0, newElements, 0, pos);
+        if (pos < length) {
+            newElements[pos] = newElement;
+            for (int i = pos + 1; i < length; i++) {
+                newElements[i] = snapshotter.snapshot(Array.get(value, i));
+            }
+        }
+
+        return new ArrayValueSnapshot(newElements);
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.changedetection.state;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Function;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
@@ -30,11 +31,16 @@ import org.gradle.api.internal.cache.StringInterner;
 import org.gradle.api.internal.tasks.CacheableTaskOutputFilePropertySpec;
 import org.gradle.api.internal.tasks.TaskOutputFilePropertySpec;
 import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.serialize.AbstractSerializer;
 import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayDeque;
@@ -185,7 +191,12 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         return bestMatch;
     }
 
-    private static class TaskExecutionListSerializer extends AbstractSerializer<ImmutableList<TaskExecutionSnapshot>> {
+    @VisibleForTesting
+    static class TaskExecutionListSerializer extends AbstractSerializer<ImmutableList<TaskExecutionSnapshot>> {
+        // Increment when the layout of the serialized executions changes. Starts above the maximum number of executions, so that
+        // lists written before the version was added are not mistaken for the current layout
+        private static final byte FORMAT_VERSION = 5;
+
         private final LazyTaskExecution.TaskExecutionSnapshotSerializer executionSerializer;
         private final StringInterner stringInterner;
 
@@ -195,6 +206,10 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         }
 
         public ImmutableList<TaskExecutionSnapshot> read(Decoder decoder) throws Exception {
+            if (decoder.readByte() != FORMAT_VERSION) {
+                // Written in a different format, treat as no history
+                return ImmutableList.of();
+            }
             byte count = decoder.readByte();
             List<TaskExecutionSnapshot> executions = new ArrayList<TaskExecutionSnapshot>(count);
             for (int i = 0; i < count; i++) {
@@ -206,6 +221,7 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
 
         public void write(Encoder encoder, ImmutableList<TaskExecutionSnapshot> value) throws Exception {
             int size = value.size();
+            encoder.writeByte(FORMAT_VERSION);
             encoder.writeByte((byte) size);
             for (TaskExecutionSnapshot execution : value) {
                 executionSerializer.write(encoder, execution);
@@ -237,6 +253,7 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         private ImmutableSortedMap<String, FileCollectionSnapshot> inputFilesSnapshot;
         private ImmutableSortedMap<String, FileCollectionSnapshot> outputFilesSnapshot;
         private FileCollectionSnapshot discoveredFilesSnapshot;
+        private byte[] serializedInputProperties;
 
         /**
          * Creates a mutable copy of the given snapshot.
@@ -245,7 +262,7 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
             setTaskClass(taskExecutionSnapshot.getTaskClass());
             setTaskClassLoaderHash(taskExecutionSnapshot.getTaskClassLoaderHash());
             setTaskActionsClassLoaderHashes(taskExecutionSnapshot.getTaskActionsClassLoaderHashes());
-            setInputProperties(taskExecutionSnapshot.getInputProperties());
+            serializedInputProperties = taskExecutionSnapshot.getSerializedInputProperties();
             setOutputPropertyNamesForCacheKey(taskExecutionSnapshot.getCacheableOutputProperties());
             setDeclaredOutputFilePaths(taskExecutionSnapshot.getDeclaredOutputFilePaths());
             inputFilesSnapshotIds = taskExecutionSnapshot.getInputFilesSnapshotIds();
@@ -256,6 +273,20 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         LazyTaskExecution() {
         }
 
+        @Override
+        public ImmutableSortedMap<String, ValueSnapshot> getInputProperties() {
+            if (super.getInputProperties() == null && serializedInputProperties != null) {
+                super.setInputProperties(TaskExecutionSnapshotSerializer.decodeInputProperties(serializedInputProperties));
+            }
+            return super.getInputProperties();
+        }
+
+        @Override
+        public void setInputProperties(ImmutableSortedMap<String, ValueSnapshot> inputProperties) {
+            super.setInputProperties(inputProperties);
+            serializedInputProperties = null;
+        }
+
         @Override
         public ImmutableSortedMap<String, FileCollectionSnapshot> getInputFilesSnapshot() {
             if (inputFilesSnapshot == null) {
@@ -308,31 +339,35 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
         }
 
         public TaskExecutionSnapshot snapshot() {
+            if (serializedInputProperties == null) {
+                serializedInputProperties = TaskExecutionSnapshotSerializer.encodeInputProperties(super.getInputProperties());
+            }
             return new TaskExecutionSnapshot(
                 getTaskClass(),
                 getOutputPropertyNamesForCacheKey(),
                 getDeclaredOutputFilePaths(),
                 getTaskClassLoaderHash(),
                 getTaskActionsClassLoaderHashes(),
-                getInputProperties(),
+                serializedInputProperties,
                 inputFilesSnapshotIds,
                 discoveredFilesSnapshotId,
                 outputFilesSnapshotIds);
         }
 
+        /**
+         * Writes the details that are used to select the previous execution first, followed by the file snapshot ids and then the input properties.
+         * The input properties are written as a single binary value, and are only decoded when they are used.
+         */
         static class TaskExecutionSnapshotSerializer implements Serializer<TaskExecutionSnapshot> {
-            private final InputPropertiesSerializer inputPropertiesSerializer;
+            private static final InputPropertiesSerializer INPUT_PROPERTIES_SERIALIZER = new InputPropertiesSerializer();
+
             private final StringInterner stringInterner;
 
             TaskExecutionSnapshotSerializer(StringInterner stringInterner) {
-                this.inputPropertiesSerializer = new InputPropertiesSerializer();
                 this.stringInterner = stringInterner;
             }
 
             public TaskExecutionSnapshot read(Decoder decoder) throws Exception {
-                ImmutableSortedMap<String, Long> inputFilesSnapshotIds = readSnapshotIds(decoder);
-                ImmutableSortedMap<String, Long> outputFilesSnapshotIds = readSnapshotIds(decoder);
-                Long discoveredFilesSnapshotId = decoder.readLong();
                 String taskClass = decoder.readString();
 
                 HashCode taskClassLoaderHash;
@@ -365,7 +400,11 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
                 }
                 ImmutableSet<String> declaredOutputFilePaths = declaredOutputFilePathsBuilder.build();
 
-                ImmutableSortedMap<String, ValueSnapshot> inputProperties = inputPropertiesSerializer.read(decoder);
+                ImmutableSortedMap<String, Long> inputFilesSnapshotIds = readSnapshotIds(decoder);
+                ImmutableSortedMap<String, Long> outputFilesSnapshotIds = readSnapshotIds(decoder);
+                Long discoveredFilesSnapshotId = decoder.readLong();
+
+                byte[] serializedInputProperties = decoder.readBinary();
 
                 return new TaskExecutionSnapshot(
                     taskClass,
@@ -373,7 +412,7 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
                     declaredOutputFilePaths,
                     taskClassLoaderHash,
                     taskActionsClassLoaderHashes,
-                    inputProperties,
+                    serializedInputProperties,
                     inputFilesSnapshotIds,
                     discoveredFilesSnapshotId,
                     outputFilesSnapshotIds
@@ -381,9 +420,6 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
             }
 
             public void write(Encoder encoder, TaskExecutionSnapshot execution) throws Exception {
-                writeSnapshotIds(encoder, execution.getInputFilesSnapshotIds());
-                writeSnapshotIds(encoder, execution.getOutputFilesSnapshotIds());
-                encoder.writeLong(execution.getDiscoveredFilesSnapshotId());
                 encoder.writeString(execution.getTaskClass());
                 HashCode classLoaderHash = execution.getTaskClassLoaderHash();
                 if (classLoaderHash == null) {
@@ -409,7 +445,30 @@ public class CacheBackedTaskHistoryRepository implements TaskHistoryRepository {
                 for (String outputFile : execution.getDeclaredOutputFilePaths()) {
                     encoder.writeString(outputFile);
                 }
-                inputPropertiesSerializer.write(encoder, execution.getInputProperties());
+                writeSnapshotIds(encoder, execution.getInputFilesSnapshotIds());
+                writeSnapshotIds(encoder, execution.getOutputFilesSnapshotIds());
+                encoder.writeLong(execution.getDiscoveredFilesSnapshotId());
+                encoder.writeBinary(execution.getSerializedInputProperties());
+            }
+
+            static byte[] encodeInputProperties(ImmutableSortedMap<String, ValueSnapshot> inputProperties) {
+                try {
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                    KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+                    INPUT_PROPERTIES_SERIALIZER.write(encoder, inputProperties);
+                    encoder.flush();
+                    return outputStream.toByteArray();
+                } catch (Exception e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
+            }
+
+            static ImmutableSortedMap<String, ValueSnapshot> decodeInputProperties(byte[] serializedInputProperties) {
+                try {
+                    return INPUT_PROPERTIES_SERIALIZER.read(new KryoBackedDecoder(new ByteArrayInputStream(serializedInputProperties)));
+                } catch (Exception e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                }
             }
 
             private static ImmutableSortedMap<String, Long> readSnapshotIds(Decoder decoder) throws IOException {
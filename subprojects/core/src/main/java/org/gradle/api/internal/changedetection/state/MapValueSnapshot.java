@@ -19,6 +19,7 @@ package org.gradle.api.internal.changedetection.state;
 import com.google.common.collect.ImmutableMap;
 import org.gradle.caching.internal.BuildCacheHasher;
 
+import java.util.Iterator;
 import java.util.Map;
 
 public class MapValueSnapshot implements ValueSnapshot {
@@ -44,6 +45,10 @@ public class MapValueSnapshot implements ValueSnapshot {
 
     @Override
     public ValueSnapshot snapshot(Object value, ValueSnapshotter snapshotter) {
+        if (value instanceof Map && sameEntriesInSameOrder((Map<?, ?>) value, snapshotter)) {
+            return this;
+        }
+
         ValueSnapshot newSnapshot = snapshotter.snapshot(value);
         if (newSnapshot instanceof MapValueSnapshot) {
             MapValueSnapshot mapSnapshot = (MapValueSnapshot) newSnapshot;
@@ -54,6 +59,25 @@ public class MapValueSnapshot implements ValueSnapshot {
         return newSnapshot;
     }
 
+    /**
+     * Compares the map with this snapshot without creating snapshots of the keys and values, for the usual case where the map is unchanged
+     * and iterates its entries in the same order as last time.
+     */
+    private boolean sameEntriesInSameOrder(Map<?, ?> map, ValueSnapshotter snapshotter) {
+        if (map.size() != entries.size()) {
+            return false;
+        }
+        Iterator<Map.Entry<ValueSnapshot, ValueSnapshot>> candidates = entries.entrySet().iterator();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Map.Entry<ValueSnapshot, ValueSnapshot> candidate = candidates.next();
+            if (snapshotter.snapshot(entry.getKey(), candidate.getKey()) != candidate.getKey()
+                || snapshotter.snapshot(entry.getValue(), candidate.getValue()) != candidate.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
@@ -19,6 +19,9 @@ package org.gradle.api.internal.changedetection.state;
 import com.google.common.collect.ImmutableSet;
 import org.gradle.caching.internal.BuildCacheHasher;
 
+import java.util.Iterator;
+import java.util.Set;
+
 public class SetValueSnapshot implements ValueSnapshot {
     private final ImmutableSet<ValueSnapshot> elements;
 
@@ -41,6 +44,10 @@ public class SetValueSnapshot implements ValueSnapshot {
 
     @Override
     public ValueSnapshot snapshot(Object value, ValueSnapshotter snapshotter) {
+        if (value instanceof Set && sameElementsInSameOrder((Set<?>) value, snapshotter)) {
+            return this;
+        }
+
         ValueSnapshot newSnapshot = snapshotter.snapshot(value);
         if (newSnapshot instanceof SetValueSnapshot) {
             SetValueSnapshot other = (SetValueSnapshot) newSnapshot;
@@ -51,6 +58,24 @@ public class SetValueSnapshot implements ValueSnapshot {
         return newSnapshot;
     }
 
+    /**
+     * Compares the set with this snapshot without creating snapshots of the elements, for the usual case where the set is unchanged
+     * and iterates its elements in the same order as last time.
+     */
+    private boolean sameElementsInSameOrder(Set<?> set, ValueSnapshotter snapshotter) {
+        if (set.size() != elements.size()) {
+            return false;
+        }
+        Iterator<ValueSnapshot> candidates = elements.iterator();
+        for (Object element : set) {
+            ValueSnapshot candidate = candidates.next();
+            if (snapshotter.snapshot(element, candidate) != candidate) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (obj == this) {
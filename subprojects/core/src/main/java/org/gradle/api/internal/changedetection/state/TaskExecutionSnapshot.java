@@ -25,25 +25,27 @@ import java.util.List;
 
 /**
  * Immutable snapshot of the state of a task when it was executed.
+ *
+ * <p>The input properties are kept in their serialized form, and are only decoded for the execution that is compared with the current one.</p>
  */
 public class TaskExecutionSnapshot {
     private final String taskClass;
     private final HashCode taskClassLoaderHash;
     private final List<HashCode> taskActionsClassLoaderHashes;
-    private final ImmutableSortedMap<String, ValueSnapshot> inputProperties;
+    private final byte[] serializedInputProperties;
     private final ImmutableSortedSet<String> cacheableOutputProperties;
     private final ImmutableSet<String> declaredOutputFilePaths;
     private final ImmutableSortedMap<String, Long> inputFilesSnapshotIds;
     private final ImmutableSortedMap<String, Long> outputFilesSnapshotIds;
     private final Long discoveredFilesSnapshotId;
 
-    public TaskExecutionSnapshot(String taskClass, ImmutableSortedSet<String> cacheableOutputProperties, ImmutableSet<String> declaredOutputFilePaths, HashCode taskClassLoaderHash, List<HashCode> taskActionsClassLoaderHashes, ImmutableSortedMap<String, ValueSnapshot> inputProperties, ImmutableSortedMap<String, Long> inputFilesSnapshotIds, Long discoveredFilesSnapshotId, ImmutableSortedMap<String, Long> outputFilesSnapshotIds) {
+    public TaskExecutionSnapshot(String taskClass, ImmutableSortedSet<String> cacheableOutputProperties, ImmutableSet<String> declaredOutputFilePaths, HashCode taskClassLoaderHash, List<HashCode> taskActionsClassLoaderHashes, byte[] serializedInputProperties, ImmutableSortedMap<String, Long> inputFilesSnapshotIds, Long discoveredFilesSnapshotId, ImmutableSortedMap<String, Long> outputFilesSnapshotIds) {
         this.taskClass = taskClass;
         this.cacheableOutputProperties = cacheableOutputProperties;
         this.declaredOutputFilePaths = declaredOutputFilePaths;
         this.taskClassLoaderHash = taskClassLoaderHash;
         this.taskActionsClassLoaderHashes = taskActionsClassLoaderHashes;
-        this.inputProperties = inputProperties;
+        this.serializedInputProperties = serializedInputProperties;
         this.inputFilesSnapshotIds = inputFilesSnapshotIds;
         this.discoveredFilesSnapshotId = discoveredFilesSnapshotId;
         this.outputFilesSnapshotIds = outputFilesSnapshotIds;
@@ -65,8 +67,11 @@ public class TaskExecutionSnapshot {
         return inputFilesSnapshotIds;
     }
 
-    public ImmutableSortedMap<String, ValueSnapshot> getInputProperties() {
-        return inputProperties;
+    /**
+     * Returns the input properties, serialized using {@link InputPropertiesSerializer}.
+     */
+    public byte[] getSerializedInputProperties() {
+        return serializedInputProperties;
     }
 
     public ImmutableSortedMap<String, Long> getOutputFilesSnapshotIds() {
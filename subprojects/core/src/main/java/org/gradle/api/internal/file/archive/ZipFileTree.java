@@ -20,12 +20,16 @@ import org.apache.tools.zip.ZipFile;
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
 import org.gradle.api.UncheckedIOException;
+import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
 import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.AbstractFileTreeElement;
 import org.gradle.api.internal.file.FileSystemSubset;
 import org.gradle.api.internal.file.collections.*;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.util.PatternFilterable;
+import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.internal.hash.HashUtil;
 import org.gradle.internal.nativeintegration.filesystem.Chmod;
 import org.gradle.internal.nativeintegration.filesystem.FileSystem;
@@ -39,18 +43,23 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree {
+public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree, PatternFilterableFileTree {
     private final File zipFile;
     private final Chmod chmod;
     private final DirectoryFileTreeFactory directoryFileTreeFactory;
     private final File tmpDir;
+    private final PatternSet patternSet;
 
     public ZipFileTree(File zipFile, File tmpDir, Chmod chmod, DirectoryFileTreeFactory directoryFileTreeFactory) {
+        this(zipFile, new File(tmpDir, zipFile.getName() + "_" + HashUtil.createCompactMD5(zipFile.getAbsolutePath())), chmod, directoryFileTreeFactory, new PatternSet());
+    }
+
+    private ZipFileTree(File zipFile, File expandDir, Chmod chmod, DirectoryFileTreeFactory directoryFileTreeFactory, PatternSet patternSet) {
         this.zipFile = zipFile;
         this.chmod = chmod;
         this.directoryFileTreeFactory = directoryFileTreeFactory;
-        String expandDirName = zipFile.getName() + "_" + HashUtil.createCompactMD5(zipFile.getAbsolutePath());
-        this.tmpDir = new File(tmpDir, expandDirName);
+        this.tmpDir = expandDir;
+        this.patternSet = patternSet;
     }
 
     public String getDisplayName() {
@@ -58,7 +67,13 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
     }
 
     public DirectoryFileTree getMirror() {
-        return directoryFileTreeFactory.create(tmpDir);
+        return directoryFileTreeFactory.create(tmpDir, patternSet);
+    }
+
+    public ZipFileTree filter(PatternFilterable patterns) {
+        PatternSet patternSet = this.patternSet.intersect();
+        patternSet.copyFrom(patterns);
+        return new ZipFileTree(zipFile, tmpDir, chmod, directoryFileTreeFactory, patternSet);
     }
 
     public void visit(FileVisitor visitor) {
@@ -70,25 +85,31 @@ public class ZipFileTree implements MinimalFileTree, FileSystemMirroringFileTree
         }
 
         AtomicBoolean stopFlag = new AtomicBoolean();
+        Spec<FileTreeElement> spec = patternSet.getAsSpec();
 
         try {
             ZipFile zip = new ZipFile(zipFile);
             try {
                 // The iteration order of zip.getEntries() is based on the hash of the zip entry. This isn't much use
                 // to us. So, collect the entries in a map and iterate over them in alphabetical order.
-                Map<String, ZipEntry> entriesByName = new TreeMap<String, ZipEntry>();
+                // The patterns are matched against the entries of the central directory only, so the content
+                // of entries that are filtered out is never read.
+                Map<String, DetailsImpl> entriesByName = new TreeMap<String, DetailsImpl>();
                 Enumeration entries = zip.getEntries();
                 while (entries.hasMoreElements()) {
                     ZipEntry entry = (ZipEntry) entries.nextElement();
-                    entriesByName.put(entry.getName(), entry);
+                    DetailsImpl details = new DetailsImpl(entry, zip, stopFlag, chmod);
+                    if (spec.isSatisfiedBy(details)) {
+                        entriesByName.put(entry.getName(), details);
+                    }
                 }
-                Iterator<ZipEntry> sortedEntries = entriesByName.values().iterator();
+                Iterator<DetailsImpl> sortedEntries = entriesByName.values().iterator();
                 while (!stopFlag.get() && sortedEntries.hasNext()) {
-                    ZipEntry entry = sortedEntries.next();
-                    if (entry.isDirectory()) {
-                        visitor.visitDir(new DetailsImpl(entry, zip, stopFlag, chmod));
+                    DetailsImpl details = sortedEntries.next();
+                    if (details.isDirectory()) {
+                        visitor.visitDir(details);
                     } else {
-                        visitor.visitFile(new DetailsImpl(entry, zip, stopFlag, chmod));
+                        visitor.visitFile(details);
                     }
                 }
             } finally {
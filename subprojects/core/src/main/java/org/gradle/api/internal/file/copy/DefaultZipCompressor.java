@@ -24,6 +24,9 @@ import java.io.File;
 import java.io.IOException;
 
 public class DefaultZipCompressor implements ZipCompressor {
+    // Ant's default of 512 bytes results in a write to the archive file for every 512 bytes of compressed output
+    private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
+
     private final int entryCompressionMethod;
     private final Zip64Mode zip64Mode;
 
@@ -33,7 +36,7 @@ public class DefaultZipCompressor implements ZipCompressor {
     }
 
     public ZipOutputStream createArchiveOutputStream(File destination) throws IOException {
-        ZipOutputStream outStream = new ZipOutputStream(destination);
+        ZipOutputStream outStream = new LargeBufferZipOutputStream(destination);
         try {
             outStream.setUseZip64(zip64Mode);
             outStream.setMethod(entryCompressionMethod);
@@ -45,4 +48,10 @@ public class DefaultZipCompressor implements ZipCompressor {
         }
     }
 
+    private static class LargeBufferZipOutputStream extends ZipOutputStream {
+        LargeBufferZipOutputStream(File file) throws IOException {
+            super(file);
+            buf = new byte[DEFLATE_BUFFER_SIZE];
+        }
+    }
 }
@@ -39,6 +39,7 @@ import org.gradle.internal.progress.BuildOperationState;
 import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.progress.BuildOperationDescriptor;
 import org.gradle.internal.work.AsyncWorkTracker;
+import org.gradle.process.internal.usage.ProcessResourceUsageCollector;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -118,11 +119,13 @@ public class ExecuteActionsTaskExecuter implements TaskExecuter {
             public void run(BuildOperationContext context) {
                 BuildOperationState currentOperation = buildOperationExecutor.getCurrentOperation();
                 Throwable actionFailure = null;
+                ProcessResourceUsageCollector processUsage = ProcessResourceUsageCollector.attach();
                 try {
                     action.execute(task);
                 } catch (Throwable t) {
                     actionFailure = t;
                 } finally {
+                    processUsage.detach();
                     action.contextualise(null);
                 }
 
@@ -148,6 +151,11 @@ public class ExecuteActionsTaskExecuter implements TaskExecuter {
                     }
                 }
 
+                if (processUsage.getProcessCount() > 0) {
+                    // Attribute the resources used by the processes this action started to the action
+                    context.setResult(processUsage.getUsage());
+                }
+
                 if (actionFailure != null) {
                     throw UncheckedException.throwAsUncheckedException(actionFailure);
                 }
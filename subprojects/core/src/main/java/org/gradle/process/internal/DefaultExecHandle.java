@@ -18,6 +18,7 @@ package org.gradle.process.internal;
 
 import com.google.common.base.Joiner;
 import net.rubygrapefruit.platform.ProcessLauncher;
+import org.gradle.api.Nullable;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.UncheckedException;
@@ -28,6 +29,9 @@ import org.gradle.internal.nativeintegration.services.NativeServices;
 import org.gradle.process.ExecResult;
 import org.gradle.process.internal.shutdown.ShutdownHookActionRegister;
 import org.gradle.process.internal.streams.StreamsHandler;
+import org.gradle.process.internal.usage.DefaultProcessResourceUsageProbe;
+import org.gradle.process.internal.usage.ProcessResourceUsage;
+import org.gradle.process.internal.usage.ProcessResourceUsageCollector;
 
 import java.io.File;
 import java.util.Arrays;
@@ -104,6 +108,16 @@ public class DefaultExecHandle implements ExecHandle, ProcessSettings {
 
     private ExecResultImpl execResult;
 
+    /**
+     * The resources used by the process, when known.
+     */
+    private ProcessResourceUsage resourceUsage;
+
+    /**
+     * Receives the resource usage of the process, when one was attached to the thread that started it.
+     */
+    private ProcessResourceUsageCollector usageCollector;
+
     private final ListenerBroadcast<ExecHandleListener> broadcast;
 
     private final ExecHandleShutdownHookAction shutdownHookAction;
@@ -186,6 +200,7 @@ public class DefaultExecHandle implements ExecHandle, ProcessSettings {
 
     private void setEndStateInfo(ExecHandleState newState, int exitValue, Throwable failureCause) {
         ShutdownHookActionRegister.removeAction(shutdownHookAction);
+        reportResourceUsage();
 
         ExecResultImpl result;
         ExecHandleState currentState;
@@ -229,8 +244,9 @@ public class DefaultExecHandle implements ExecHandle, ProcessSettings {
                 throw new IllegalStateException(String.format("Cannot start process '%s' because it has already been started", displayName));
             }
             setState(ExecHandleState.STARTING);
+            usageCollector = ProcessResourceUsageCollector.current();
 
-            execHandleRunner = new ExecHandleRunner(this, streamsHandler, processLauncher, executorFactory);
+            execHandleRunner = new ExecHandleRunner(this, streamsHandler, processLauncher, executorFactory, new DefaultProcessResourceUsageProbe());
             executor.execute(execHandleRunner);
 
             while(stateIn(ExecHandleState.STARTING)) {
@@ -303,6 +319,39 @@ public class DefaultExecHandle implements ExecHandle, ProcessSettings {
         setEndStateInfo(ExecHandleState.DETACHED, 0, null);
     }
 
+    void resourceUsage(ProcessResourceUsage resourceUsage) {
+        lock.lock();
+        try {
+            this.resourceUsage = resourceUsage;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the resources used by the process, as last sampled while it was running. Returns null while the process is running, or when not known for this process or platform.
+     */
+    @Nullable
+    public ProcessResourceUsage getResourceUsage() {
+        lock.lock();
+        try {
+            return resourceUsage;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reportResourceUsage() {
+        ProcessResourceUsage usage = getResourceUsage();
+        if (usage == null) {
+            return;
+        }
+        LOGGER.info("Process '{}' used resources: {}", displayName, usage);
+        if (usageCollector != null) {
+            usageCollector.processFinished(usage);
+        }
+    }
+
     void started() {
         ShutdownHookActionRegister.addAction(shutdownHookAction);
         setState(ExecHandleState.STARTED);
@@ -20,27 +20,35 @@ import net.rubygrapefruit.platform.ProcessLauncher;
 import org.gradle.api.logging.Logger;
 import org.gradle.api.logging.Logging;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.StoppableExecutor;
 import org.gradle.process.internal.streams.StreamsHandler;
+import org.gradle.process.internal.usage.ProcessResourceUsage;
+import org.gradle.process.internal.usage.ProcessResourceUsageProbe;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class ExecHandleRunner implements Runnable {
     private static final Logger LOGGER = Logging.getLogger(ExecHandleRunner.class);
+    private static final long USAGE_SAMPLE_INTERVAL_MILLIS = 500;
 
     private final ProcessBuilderFactory processBuilderFactory;
     private final DefaultExecHandle execHandle;
     private final Lock lock = new ReentrantLock();
     private final ProcessLauncher processLauncher;
     private final ExecutorFactory executorFactory;
+    private final ProcessResourceUsageProbe usageProbe;
 
     private Process process;
     private boolean aborted;
     private final StreamsHandler streamsHandler;
 
-    public ExecHandleRunner(DefaultExecHandle execHandle, StreamsHandler streamsHandler, ProcessLauncher processLauncher, ExecutorFactory executorFactory) {
+    public ExecHandleRunner(DefaultExecHandle execHandle, StreamsHandler streamsHandler, ProcessLauncher processLauncher, ExecutorFactory executorFactory, ProcessResourceUsageProbe usageProbe) {
         this.processLauncher = processLauncher;
         this.executorFactory = executorFactory;
+        this.usageProbe = usageProbe;
         if (execHandle == null) {
             throw new IllegalArgumentException("execHandle == null!");
         }
@@ -78,7 +86,7 @@ public class ExecHandleRunner implements Runnable {
                 streamsHandler.stop();
                 detached();
             } else {
-                int exitValue = process.waitFor();
+                int exitValue = usageProbe.isSupported() ? waitForSampled(process) : process.waitFor();
                 streamsHandler.stop();
                 completed(exitValue);
             }
@@ -87,6 +95,24 @@ public class ExecHandleRunner implements Runnable {
         }
     }
 
+    /**
+     * Waits for the process to exit while sampling its resource usage on a separate thread.
+     */
+    private int waitForSampled(Process process) throws InterruptedException {
+        UsageSampler usageSampler = new UsageSampler(process);
+        StoppableExecutor samplerExecutor = executorFactory.create("Sample resource usage of " + execHandle.getDisplayName());
+        samplerExecutor.execute(usageSampler);
+        int exitValue;
+        try {
+            exitValue = process.waitFor();
+        } finally {
+            usageSampler.stop();
+            samplerExecutor.stop();
+        }
+        execHandle.resourceUsage(usageSampler.getUsage());
+        return exitValue;
+    }
+
     private void setProcess(Process process) {
         lock.lock();
         try {
@@ -107,4 +133,51 @@ public class ExecHandleRunner implements Runnable {
     private void detached() {
         execHandle.detached();
     }
+
+    /**
+     * Periodically samples the resources used by the process while it runs, as they can no longer be queried once the process has exited.
+     */
+    private class UsageSampler implements Runnable {
+        private final Process process;
+        private final CountDownLatch stopped = new CountDownLatch(1);
+        private volatile ProcessResourceUsage usage;
+
+        UsageSampler(Process process) {
+            this.process = process;
+        }
+
+        public void run() {
+            try {
+                while (stopped.getCount() > 0) {
+                    ProcessResourceUsage sample = usageProbe.sample(process);
+                    // Once the process has exited, its pid may have been reused by another process, so the sample cannot be trusted.
+                    // The process cannot be reaped while it is still running, so a sample taken before that check is of this process.
+                    if (sample == null || hasExited(process)) {
+                        return;
+                    }
+                    usage = sample;
+                    stopped.await(USAGE_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                // Stop sampling
+            }
+        }
+
+        private boolean hasExited(Process process) {
+            try {
+                process.exitValue();
+                return true;
+            } catch (IllegalThreadStateException e) {
+                return false;
+            }
+        }
+
+        void stop() {
+            stopped.countDown();
+        }
+
+        ProcessResourceUsage getUsage() {
+            return usage;
+        }
+    }
 }
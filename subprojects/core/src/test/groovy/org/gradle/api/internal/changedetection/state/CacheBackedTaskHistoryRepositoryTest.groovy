@@ -0,0 +1,189 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.changedetection.state
+
+import com.google.common.collect.ImmutableList
+import com.google.common.collect.ImmutableSet
+import com.google.common.collect.ImmutableSortedMap
+import com.google.common.collect.ImmutableSortedSet
+import com.google.common.hash.HashCode
+import org.gradle.api.Transformer
+import org.gradle.api.file.FileCollection
+import org.gradle.api.internal.TaskInternal
+import org.gradle.api.internal.TaskOutputsInternal
+import org.gradle.api.internal.cache.StringInterner
+import org.gradle.cache.PersistentIndexedCache
+import org.gradle.internal.serialize.Serializer
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder
+import spock.lang.Specification
+
+class CacheBackedTaskHistoryRepositoryTest extends Specification {
+    def stringInterner = new StringInterner()
+    def serializer = new CacheBackedTaskHistoryRepository.TaskExecutionListSerializer(stringInterner)
+    def snapshotRepository = Stub(FileSnapshotRepository) {
+        add(_) >> 1L
+    }
+    def cache = new SerializingCache(serializer)
+    def taskHistoryStore = Stub(TaskHistoryStore) {
+        createCache("taskHistory", String, _, _, _) >> cache
+    }
+    def repository = new CacheBackedTaskHistoryRepository(taskHistoryStore, snapshotRepository, stringInterner)
+    def task = Stub(TaskInternal) {
+        getPath() >> ":task"
+        getOutputs() >> Stub(TaskOutputsInternal) {
+            getFileProperties() >> ImmutableSortedSet.of()
+            getFiles() >> Stub(FileCollection) {
+                iterator() >> { [].iterator() }
+            }
+        }
+    }
+
+    def "round trips executions"() {
+        def execution = new TaskExecutionSnapshot(
+            "org.gradle.SomeTask",
+            ImmutableSortedSet.of("output"),
+            ImmutableSet.of("/output/file"),
+            HashCode.fromInt(123),
+            [HashCode.fromInt(456), null],
+            [1, 2, 3] as byte[],
+            ImmutableSortedMap.of("input", Long.MIN_VALUE, "other", 12L),
+            Long.MAX_VALUE,
+            ImmutableSortedMap.of("output", -1L))
+
+        when:
+        def read = roundTrip(ImmutableList.of(execution))
+
+        then:
+        read.size() == 1
+        with(read[0]) {
+            taskClass == "org.gradle.SomeTask"
+            cacheableOutputProperties == ImmutableSortedSet.of("output")
+            declaredOutputFilePaths == ImmutableSet.of("/output/file")
+            taskClassLoaderHash == HashCode.fromInt(123)
+            taskActionsClassLoaderHashes == [HashCode.fromInt(456), null]
+            serializedInputProperties == [1, 2, 3] as byte[]
+            inputFilesSnapshotIds == ImmutableSortedMap.of("input", Long.MIN_VALUE, "other", 12L)
+            discoveredFilesSnapshotId == Long.MAX_VALUE
+            outputFilesSnapshotIds == ImmutableSortedMap.of("output", -1L)
+        }
+    }
+
+    def "treats executions written in a different format as no history"() {
+        def outputStream = new ByteArrayOutputStream()
+        def encoder = new KryoBackedEncoder(outputStream)
+        // The layout before the format version was written started with the number of executions
+        encoder.writeByte((byte) 3)
+        encoder.writeString("org.gradle.SomeTask")
+        encoder.flush()
+
+        expect:
+        serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(outputStream.toByteArray()))).empty
+    }
+
+    def "decodes input properties of previous execution when they are used"() {
+        def inputProperties = ImmutableSortedMap.<String, ValueSnapshot>of("prop", new StringValueSnapshot("value"))
+
+        given:
+        execute(inputProperties)
+
+        when:
+        def history = repository.getHistory(task)
+
+        then:
+        cache.get(":task")[0].serializedInputProperties != null
+        history.previousExecution.inputProperties == inputProperties
+    }
+
+    def "writes input properties of previous executions back without decoding them"() {
+        def inputProperties = ImmutableSortedMap.<String, ValueSnapshot>of("prop", new StringValueSnapshot("value"))
+        execute(inputProperties)
+        def serializedInputProperties = cache.get(":task")[0].serializedInputProperties
+
+        when:
+        execute(ImmutableSortedMap.<String, ValueSnapshot>of("prop", new StringValueSnapshot("changed")))
+
+        then:
+        def executions = cache.get(":task")
+        executions.size() == 2
+        executions[1].serializedInputProperties == serializedInputProperties
+        repository.getHistory(task).previousExecution.inputProperties.get("prop") == new StringValueSnapshot("changed")
+    }
+
+    private void execute(ImmutableSortedMap<String, ValueSnapshot> inputProperties) {
+        def history = repository.getHistory(task)
+        def execution = history.currentExecution
+        execution.taskClass = "org.gradle.SomeTask"
+        execution.taskActionsClassLoaderHashes = []
+        execution.inputProperties = inputProperties
+        execution.inputFilesSnapshot = ImmutableSortedMap.of()
+        execution.outputFilesSnapshot = ImmutableSortedMap.of()
+        execution.discoveredInputFilesSnapshot = Stub(FileCollectionSnapshot)
+        history.update()
+    }
+
+    private List<TaskExecutionSnapshot> roundTrip(ImmutableList<TaskExecutionSnapshot> executions) {
+        def outputStream = new ByteArrayOutputStream()
+        def encoder = new KryoBackedEncoder(outputStream)
+        serializer.write(encoder, executions)
+        encoder.flush()
+        return serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(outputStream.toByteArray())))
+    }
+
+    /**
+     * Keeps the serialized form of each value, so that values always go through the serializer.
+     */
+    private static class SerializingCache implements PersistentIndexedCache<String, ImmutableList<TaskExecutionSnapshot>> {
+        private final Serializer<ImmutableList<TaskExecutionSnapshot>> serializer
+        private final Map<String, byte[]> entries = [:]
+
+        SerializingCache(Serializer<ImmutableList<TaskExecutionSnapshot>> serializer) {
+            this.serializer = serializer
+        }
+
+        @Override
+        ImmutableList<TaskExecutionSnapshot> get(String key) {
+            def serialized = entries[key]
+            return serialized == null ? null : serializer.read(new KryoBackedDecoder(new ByteArrayInputStream(serialized)))
+        }
+
+        @Override
+        ImmutableList<TaskExecutionSnapshot> get(String key, Transformer<? extends ImmutableList<TaskExecutionSnapshot>, ? super String> producer) {
+            def value = get(key)
+            if (value == null) {
+                value = producer.transform(key)
+                put(key, value)
+            }
+            return value
+        }
+
+        @Override
+        void put(String key, ImmutableList<TaskExecutionSnapshot> value) {
+            def outputStream = new ByteArrayOutputStream()
+            def encoder = new KryoBackedEncoder(outputStream)
+            serializer.write(encoder, value)
+            encoder.flush()
+            entries[key] = outputStream.toByteArray()
+        }
+
+        @Override
+        void remove(String key) {
+            entries.remove(key)
+        }
+    }
+}
@@ -396,6 +396,29 @@ class ValueSnapshotterTest extends Specification {
         snapshotter.snapshot(map3, snapshot4) == snapshotter.snapshot(map3)
     }
 
+    def "creates snapshot for set and map with different iteration order from candidate"() {
+        def map = new LinkedHashMap()
+        map.a = "1"
+        map.b = ["2", "3"]
+        def reordered = new LinkedHashMap()
+        reordered.b = ["2", "3"]
+        reordered.a = "1"
+
+        expect:
+        areTheSame(snapshotter.snapshot(map), reordered)
+        areNotTheSame(snapshotter.snapshot(map), [b: ["2", "4"], a: "1"])
+        areTheSame(snapshotter.snapshot(["a", "b", "c"] as LinkedHashSet), ["c", "b", "a"] as LinkedHashSet)
+        areNotTheSame(snapshotter.snapshot(["a", "b", "c"] as LinkedHashSet), ["c", "b", "d"] as LinkedHashSet)
+    }
+
+    def "creates snapshot for primitive array from candidate"() {
+        expect:
+        areTheSame(snapshotter.snapshot([1, 2, 3] as int[]), [1, 2, 3] as int[])
+        areNotTheSame(snapshotter.snapshot([1, 2, 3] as int[]), [1, 2, 4] as int[])
+        areNotTheSame(snapshotter.snapshot([1, 2, 3] as int[]), [1, 2] as int[])
+        areNotTheSame(snapshotter.snapshot([1, 2, 3] as int[]), [1, 2, 3, 4] as int[])
+    }
+
     def "creates snapshot for serializable type from candidate"() {
         expect:
         def snapshot = snapshotter.snapshot(new Bean(prop: "value"))
@@ -17,6 +17,7 @@ package org.gradle.api.internal.file.archive;
 
 import org.gradle.api.GradleException;
 import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.tasks.util.PatternSet;
 import org.gradle.test.fixtures.file.TestFile;
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider;
 import org.gradle.util.Resources;
@@ -58,6 +59,20 @@ public class ZipFileTreeTest {
         assertSetContainsForAllTypes(tree, toList("subdir/file1.txt", "subdir2/file2.txt"));
     }
 
+    @Test
+    public void visitsOnlyEntriesMatchingPatterns() {
+        rootDir.file("subdir/file1.txt").write("content");
+        rootDir.file("subdir/file2.xml").write("content");
+        rootDir.file("subdir2/file3.txt").write("content");
+        rootDir.zipTo(zipFile);
+
+        PatternSet patterns = new PatternSet();
+        patterns.include("**/*.txt");
+        patterns.exclude("subdir2/**");
+
+        assertVisits(tree.filter(patterns), toList("subdir/file1.txt"), toList("subdir"));
+    }
+
     @Test
     public void canStopVisitingFiles() {
         rootDir.file("subdir/file1.txt").write("content");
@@ -33,6 +33,8 @@ import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.RunnableBuildOperation
 import org.gradle.internal.work.AsyncWorkTracker
 import org.gradle.logging.StandardOutputCapture
+import org.gradle.process.internal.usage.ProcessResourceUsage
+import org.gradle.process.internal.usage.ProcessResourceUsageCollector
 import spock.lang.Specification
 
 import static java.util.Collections.emptyList
@@ -436,4 +438,40 @@ class ExecuteActionsTaskExecutorTest extends Specification {
         wrappedFailure.message.startsWith("Execution failed for ")
         wrappedFailure.cause.is(failure)
     }
+
+    def "publishes resource usage of processes started by an action as the result of its build operation"() {
+        given:
+        task.getTaskActions() >> [action1]
+        def context = Mock(BuildOperationContext)
+
+        when:
+        executer.execute(task, state, executionContext)
+
+        then:
+        1 * action1.execute(task) >> {
+            ProcessResourceUsageCollector.current().processFinished(new ProcessResourceUsage(100, 2000, 30, 40))
+            ProcessResourceUsageCollector.current().processFinished(new ProcessResourceUsage(200, 1000, 50, 60))
+        }
+        1 * buildOperationExecutor.run(_ as RunnableBuildOperation) >> { args -> args[0].run(context) }
+        1 * context.setResult({ ProcessResourceUsage usage ->
+            usage.cpuTimeMillis == 300 && usage.peakResidentMemoryBytes == 2000 && usage.bytesRead == 80 && usage.bytesWritten == 100
+        })
+        ProcessResourceUsageCollector.current() == null
+        !state.failure
+    }
+
+    def "does not publish resource usage when an action starts no processes"() {
+        given:
+        task.getTaskActions() >> [action1]
+        def context = Mock(BuildOperationContext)
+
+        when:
+        executer.execute(task, state, executionContext)
+
+        then:
+        1 * action1.execute(task)
+        1 * buildOperationExecutor.run(_ as RunnableBuildOperation) >> { args -> args[0].run(context) }
+        0 * context.setResult(_)
+        ProcessResourceUsageCollector.current() == null
+    }
 }
@@ -21,8 +21,11 @@ import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.jvm.Jvm
 import org.gradle.process.ExecResult
 import org.gradle.process.internal.streams.StreamsHandler
+import org.gradle.process.internal.usage.ProcessResourceUsageCollector
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.gradle.util.GUtil
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
 import org.gradle.util.UsesNativeServices
 import org.junit.Rule
 import spock.lang.Ignore
@@ -308,6 +311,27 @@ class DefaultExecHandleSpec extends Specification {
         0 * streamsHandler._
     }
 
+    @Requires(TestPrecondition.LINUX)
+    void "reports resource usage of process to collector attached to the starting thread"() {
+        given:
+        def execHandle = handle().args(args(TestApp.class)).build();
+        def collector = ProcessResourceUsageCollector.attach()
+
+        when:
+        try {
+            execHandle.start()
+        } finally {
+            collector.detach()
+        }
+        execHandle.waitForFinish()
+
+        then:
+        execHandle.resourceUsage.peakResidentMemoryBytes > 0
+        collector.processCount == 1
+        collector.usage.peakResidentMemoryBytes == execHandle.resourceUsage.peakResidentMemoryBytes
+        ProcessResourceUsageCollector.current() == null
+    }
+
     @Timeout(2)
     @Ignore //not yet implemented
     void "exec handle can detach with timeout"() {
@@ -16,12 +16,22 @@
 
 package org.gradle.plugins.ide.internal.tooling;
 
+import org.gradle.api.Action;
 import org.gradle.api.JavaVersion;
 import org.gradle.api.Project;
 import org.gradle.api.initialization.IncludedBuild;
+import org.gradle.api.internal.GradleInternal;
+import org.gradle.api.internal.project.ProjectInternal;
 import org.gradle.api.plugins.JavaPluginConvention;
 import org.gradle.composite.internal.IncludedBuildInternal;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.progress.BuildOperationDescriptor;
+import org.gradle.internal.resources.ResourceLock;
 import org.gradle.internal.service.ServiceRegistry;
+import org.gradle.internal.work.WorkerLeaseService;
 import org.gradle.plugins.ide.idea.IdeaPlugin;
 import org.gradle.plugins.ide.idea.model.Dependency;
 import org.gradle.plugins.ide.idea.model.IdeaLanguageLevel;
@@ -108,9 +118,7 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         for (IdeaModule module : projectModel.getModules()) {
             appendModule(modules, module, out, rootGradleProject);
         }
-        for (IdeaModule module : projectModel.getModules()) {
-            buildDependencies(modules, module);
-        }
+        buildDependencies(project, modules, projectModel.getModules());
         final Collection<DefaultIdeaModule> ideaModules = modules.values();
         out.setChildren(new LinkedList<DefaultIdeaModule>(ideaModules));
         return out;
@@ -120,6 +128,51 @@ public class IdeaModelBuilder implements ToolingModelBuilder {
         return project.getPlugins().getPlugin(IdeaPlugin.class);
     }
 
+    /**
+     * Resolves the dependencies of each module. With parallel execution enabled, the modules are resolved concurrently, each one while holding
+     * the lock of the project that owns it. Each module only updates its own model, so the result is the same as for serial resolution.
+     * Failures are collected by the build operation executor and rethrown together once all modules are done.
+     */
+    private void buildDependencies(Project project, final Map<String, DefaultIdeaModule> modules, final List<IdeaModule> ideaModules) {
+        if (!project.getGradle().getStartParameter().isParallelProjectExecutionEnabled() || ideaModules.size() < 2) {
+            for (IdeaModule module : ideaModules) {
+                buildDependencies(modules, module);
+            }
+            return;
+        }
+
+        ServiceRegistry services = ((ProjectInternal) project).getServices();
+        final BuildOperationExecutor buildOperationExecutor = services.get(BuildOperationExecutor.class);
+        final WorkerLeaseService workerLeaseService = services.get(WorkerLeaseService.class);
+        buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+            @Override
+            public void execute(BuildOperationQueue<RunnableBuildOperation> queue) {
+                for (final IdeaModule module : ideaModules) {
+                    final Project moduleProject = module.getProject();
+                    final ResourceLock projectLock = workerLeaseService.getProjectLock(
+                        ((GradleInternal) moduleProject.getGradle()).getIdentityPath().toString(),
+                        ((ProjectInternal) moduleProject).getIdentityPath().toString());
+                    queue.add(new RunnableBuildOperation() {
+                        @Override
+                        public void run(BuildOperationContext context) {
+                            workerLeaseService.withLocks(projectLock).execute(new Runnable() {
+                                @Override
+                                public void run() {
+                                    buildDependencies(modules, module);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public BuildOperationDescriptor.Builder description() {
+                            return BuildOperationDescriptor.displayName("Resolve IDEA module dependencies for " + moduleProject.getDisplayName());
+                        }
+                    });
+                }
+            }
+        });
+    }
+
     private void buildDependencies(Map<String, DefaultIdeaModule> modules, IdeaModule ideaModule) {
         ideaModule.setOffline(offlineDependencyResolution);
         Set<Dependency> resolved = ideaModule.resolveDependencies();
@@ -24,6 +24,7 @@ import org.gradle.api.plugins.GroovyPlugin
 import org.gradle.api.plugins.JavaPlugin
 import org.gradle.api.plugins.scala.ScalaPlugin
 import org.gradle.internal.jvm.Jvm
+import org.gradle.internal.operations.MultipleBuildOperationFailures
 import org.gradle.internal.service.DefaultServiceRegistry
 import org.gradle.plugins.ide.idea.IdeaPlugin
 import org.gradle.plugins.ide.internal.tooling.GradleProjectBuilder
@@ -287,6 +288,40 @@ class IdeaModelBuilderTest extends AbstractProjectBuilderSpec {
         ideaProject.javaLanguageSettings.languageLevel == defaultIdeaPluginLanguageLevelForJavaProjects
     }
 
+    def "resolves module dependencies concurrently when parallel execution is enabled"() {
+        given:
+        root.gradle.startParameter.parallelProjectExecutionEnabled = true
+        [root, child1, child2].each { it.plugins.apply(JavaPlugin) }
+        root.dependencies.add('compile', child1)
+        child1.dependencies.add('compile', child2)
+
+        when:
+        def ideaProject = buildIdeaProjectModel()
+
+        then:
+        def rootModule = ideaProject.modules.find { it.name == 'root' }
+        def child1Module = ideaProject.modules.find { it.name == 'child1' }
+        moduleDependencies(rootModule)*.targetModuleName == ['child1']
+        moduleDependencies(rootModule)[0].dependencyModule.is(child1Module)
+        moduleDependencies(child1Module)*.targetModuleName == ['child2']
+        ideaProject.modules.find { it.name == 'child2' }.dependencies.empty
+    }
+
+    def "reports module dependency resolution failures when parallel execution is enabled"() {
+        given:
+        root.gradle.startParameter.parallelProjectExecutionEnabled = true
+        [root, child1, child2].each { it.plugins.apply(JavaPlugin) }
+        child1.configurations.compile.incoming.beforeResolve { throw new RuntimeException("broken") }
+
+        when:
+        buildIdeaProjectModel()
+
+        then:
+        def e = thrown(MultipleBuildOperationFailures)
+        e.causes.size() == 1
+        causeChain(e.causes[0]).any { it.message == "broken" }
+    }
+
     private DefaultIdeaProject buildIdeaProjectModel() {
         def builder = createIdeaModelBuilder()
         buildIdeaProject(builder, root)
@@ -305,6 +340,18 @@ class IdeaModelBuilderTest extends AbstractProjectBuilderSpec {
         modelBuilder.buildAll("org.gradle.tooling.model.idea.IdeaProject", project)
     }
 
+    private static List<DefaultIdeaModuleDependency> moduleDependencies(DefaultIdeaModule module) {
+        module.dependencies.findAll { it instanceof DefaultIdeaModuleDependency }
+    }
+
+    private static List<Throwable> causeChain(Throwable failure) {
+        def chain = []
+        for (def current = failure; current != null; current = current.cause) {
+            chain << current
+        }
+        chain
+    }
+
     private JavaVersion toJavaVersion(ideaLanguageLevel) {
         JavaVersion.valueOf(ideaLanguageLevel.level.replaceFirst("JDK", "VERSION"));
     }
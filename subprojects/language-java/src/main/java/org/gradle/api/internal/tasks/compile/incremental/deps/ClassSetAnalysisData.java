@@ -25,8 +25,9 @@ import org.gradle.internal.serialize.Encoder;
 import org.gradle.internal.serialize.SetSerializer;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -85,29 +86,32 @@ public class ClassSetAnalysisData {
 
         @Override
         public ClassSetAnalysisData read(Decoder decoder) throws Exception {
-            // Class names are de-duplicated when encoded
-            Map<Integer, String> classNameMap = new HashMap<Integer, String>();
+            // Class names are written once up front, and referenced by their index everywhere else
+            String[] classNames = new String[decoder.readSmallInt()];
+            for (int i = 0; i < classNames.length; i++) {
+                classNames[i] = decoder.readString();
+            }
 
             int count = decoder.readSmallInt();
             ImmutableMap.Builder<String, String> filePathToClassNameBuilder = ImmutableMap.builder();
             for (int i = 0; i < count; i++) {
                 String filePath = decoder.readString();
-                String className = readClassName(decoder, classNameMap);
+                String className = classNames[decoder.readSmallInt()];
                 filePathToClassNameBuilder.put(filePath, className);
             }
 
             count = decoder.readSmallInt();
             ImmutableMap.Builder<String, DependentsSet> dependentsBuilder = ImmutableMap.builder();
             for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
-                DependentsSet dependents = readDependentsSet(decoder, classNameMap);
+                String className = classNames[decoder.readSmallInt()];
+                DependentsSet dependents = readDependentsSet(decoder, classNames);
                 dependentsBuilder.put(className, dependents);
             }
 
             count = decoder.readSmallInt();
             ImmutableMap.Builder<String, Set<Integer>> classesToConstantsBuilder = ImmutableMap.builder();
             for (int i = 0; i < count; i++) {
-                String className = readClassName(decoder, classNameMap);
+                String className = classNames[decoder.readSmallInt()];
                 Set<Integer> constants = INTEGER_SET_SERIALIZER.read(decoder);
                 classesToConstantsBuilder.put(className, constants);
             }
@@ -116,24 +120,14 @@ public class ClassSetAnalysisData {
             ImmutableMap.Builder<Integer, Set<String>> literalsToClassesBuilder = ImmutableMap.builder();
             for (int i = 0; i < count; i++) {
                 int literal = decoder.readInt();
-                int nameCount = decoder.readSmallInt();
-                ImmutableSet.Builder<String> namesBuilder = ImmutableSet.builder();
-                for (int j = 0; j < nameCount; j++) {
-                    namesBuilder.add(readClassName(decoder, classNameMap));
-                }
-                literalsToClassesBuilder.put(literal, namesBuilder.build());
+                literalsToClassesBuilder.put(literal, readClassNames(decoder, classNames));
             }
 
             count = decoder.readSmallInt();
             ImmutableMap.Builder<String, Set<String>> classNameToChildren = ImmutableMap.builder();
             for (int i = 0; i < count; i++) {
-                String parent = readClassName(decoder, classNameMap);
-                int nameCount = decoder.readSmallInt();
-                ImmutableSet.Builder<String> namesBuilder = ImmutableSet.builder();
-                for (int j = 0; j < nameCount; j++) {
-                    namesBuilder.add(readClassName(decoder, classNameMap));
-                }
-                classNameToChildren.put(parent, namesBuilder.build());
+                String parent = classNames[decoder.readSmallInt()];
+                classNameToChildren.put(parent, readClassNames(decoder, classNames));
             }
 
             return new ClassSetAnalysisData(filePathToClassNameBuilder.build(), dependentsBuilder.build(), classesToConstantsBuilder.build(), literalsToClassesBuilder.build(), classNameToChildren.build());
@@ -141,94 +135,121 @@ public class ClassSetAnalysisData {
 
         @Override
         public void write(Encoder encoder, ClassSetAnalysisData value) throws Exception {
-            // Deduplicate class names when encoding.
-            // This would be more efficient with a better data structure in ClassSetAnalysisData
-            Map<String, Integer> classNameMap = new HashMap<String, Integer>();
+            Map<String, Integer> classIds = collectClassNames(value);
+            encoder.writeSmallInt(classIds.size());
+            for (String className : classIds.keySet()) {
+                encoder.writeString(className);
+            }
 
             encoder.writeSmallInt(value.filePathToClassName.size());
             for (Map.Entry<String, String> entry : value.filePathToClassName.entrySet()) {
                 encoder.writeString(entry.getKey());
-                writeClassName(entry.getValue(), classNameMap, encoder);
+                encoder.writeSmallInt(classIds.get(entry.getValue()));
             }
 
             encoder.writeSmallInt(value.dependents.size());
             for (Map.Entry<String, DependentsSet> entry : value.dependents.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
-                writeDependentSet(entry.getValue(), classNameMap, encoder);
+                encoder.writeSmallInt(classIds.get(entry.getKey()));
+                writeDependentSet(entry.getValue(), classIds, encoder);
             }
 
             encoder.writeSmallInt(value.classesToConstants.size());
             for (Map.Entry<String, Set<Integer>> entry : value.classesToConstants.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
+                encoder.writeSmallInt(classIds.get(entry.getKey()));
                 INTEGER_SET_SERIALIZER.write(encoder, entry.getValue());
             }
 
             encoder.writeSmallInt(value.literalsToClasses.size());
             for (Map.Entry<Integer, Set<String>> entry : value.literalsToClasses.entrySet()) {
                 encoder.writeInt(entry.getKey());
-                encoder.writeSmallInt(entry.getValue().size());
-                for (String className : entry.getValue()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
+                writeClassNames(entry.getValue(), classIds, encoder);
             }
 
             encoder.writeSmallInt(value.classesToChildren.size());
             for (Map.Entry<String, Set<String>> entry : value.classesToChildren.entrySet()) {
-                writeClassName(entry.getKey(), classNameMap, encoder);
-                encoder.writeSmallInt(entry.getValue().size());
-                for (String className : entry.getValue()) {
-                    writeClassName(className, classNameMap, encoder);
+                encoder.writeSmallInt(classIds.get(entry.getKey()));
+                writeClassNames(entry.getValue(), classIds, encoder);
+            }
+        }
+
+        private static Map<String, Integer> collectClassNames(ClassSetAnalysisData value) {
+            Map<String, Integer> classIds = new LinkedHashMap<String, Integer>();
+            collectClassNames(value.filePathToClassName.values(), classIds);
+            collectClassNames(value.dependents.keySet(), classIds);
+            for (DependentsSet dependentsSet : value.dependents.values()) {
+                if (!dependentsSet.isDependencyToAll()) {
+                    collectClassNames(dependentsSet.getDependentClasses(), classIds);
                 }
             }
+            collectClassNames(value.classesToConstants.keySet(), classIds);
+            for (Set<String> classNames : value.literalsToClasses.values()) {
+                collectClassNames(classNames, classIds);
+            }
+            collectClassNames(value.classesToChildren.keySet(), classIds);
+            for (Set<String> classNames : value.classesToChildren.values()) {
+                collectClassNames(classNames, classIds);
+            }
+            return classIds;
         }
 
-        private DependentsSet readDependentsSet(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
+        private static void collectClassNames(Iterable<String> classNames, Map<String, Integer> classIds) {
+            for (String className : classNames) {
+                if (!classIds.containsKey(className)) {
+                    classIds.put(className, classIds.size());
+                }
+            }
+        }
+
+        private DependentsSet readDependentsSet(Decoder decoder, String[] classNames) throws IOException {
             byte b = decoder.readByte();
             if (b == 1) {
                 return new DependencyToAll(decoder.readNullableString());
             }
-            int count = decoder.readSmallInt();
-            ImmutableSet.Builder<String> builder = ImmutableSet.builder();
-            for (int i = 0; i < count; i++) {
-                builder.add(readClassName(decoder, classNameMap));
-            }
-            return new DefaultDependentsSet(builder.build());
+            return new IndexedDependentsSet(classNames, readClassIds(decoder));
         }
 
-        private void writeDependentSet(DependentsSet dependentsSet, Map<String, Integer> classNameMap, Encoder encoder) throws IOException {
+        private void writeDependentSet(DependentsSet dependentsSet, Map<String, Integer> classIds, Encoder encoder) throws IOException {
             if (dependentsSet.isDependencyToAll()) {
                 encoder.writeByte((byte) 1);
                 encoder.writeNullableString(dependentsSet.getDescription());
             } else {
                 encoder.writeByte((byte) 2);
-                encoder.writeSmallInt(dependentsSet.getDependentClasses().size());
-                for (String className : dependentsSet.getDependentClasses()) {
-                    writeClassName(className, classNameMap, encoder);
-                }
+                writeClassNames(dependentsSet.getDependentClasses(), classIds, encoder);
             }
         }
 
-        private String readClassName(Decoder decoder, Map<Integer, String> classNameMap) throws IOException {
-            int id = decoder.readSmallInt();
-            if (id == 0) {
-                id = decoder.readSmallInt();
-                String className = decoder.readString();
-                classNameMap.put(id, className);
-                return className;
+        private Set<String> readClassNames(Decoder decoder, String[] classNames) throws IOException {
+            int[] ids = readClassIds(decoder);
+            ImmutableSet.Builder<String> namesBuilder = ImmutableSet.builder();
+            for (int id : ids) {
+                namesBuilder.add(classNames[id]);
             }
-            return classNameMap.get(id);
+            return namesBuilder.build();
         }
 
-        private void writeClassName(String className, Map<String, Integer> classIdMap, Encoder encoder) throws IOException {
-            Integer id = classIdMap.get(className);
-            if (id == null) {
-                id = classIdMap.size() + 1;
-                classIdMap.put(className, id);
-                encoder.writeSmallInt(0);
-                encoder.writeSmallInt(id);
-                encoder.writeString(className);
-            } else {
-                encoder.writeSmallInt(id);
+        // Ids are sorted and written as deltas, which keeps most of them to a single byte
+        private int[] readClassIds(Decoder decoder) throws IOException {
+            int[] ids = new int[decoder.readSmallInt()];
+            int previous = 0;
+            for (int i = 0; i < ids.length; i++) {
+                previous += decoder.readSmallInt();
+                ids[i] = previous;
+            }
+            return ids;
+        }
+
+        private void writeClassNames(Set<String> classNames, Map<String, Integer> classIds, Encoder encoder) throws IOException {
+            int[] ids = new int[classNames.size()];
+            int i = 0;
+            for (String className : classNames) {
+                ids[i++] = classIds.get(className);
+            }
+            Arrays.sort(ids);
+            encoder.writeSmallInt(ids.length);
+            int previous = 0;
+            for (int id : ids) {
+                encoder.writeSmallInt(id - previous);
+                previous = id;
             }
         }
     }
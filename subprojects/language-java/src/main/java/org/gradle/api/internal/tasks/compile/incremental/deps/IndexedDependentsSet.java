@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile.incremental.deps;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A set of dependent classes stored as indexes into a class name table shared by all sets of a {@link ClassSetAnalysisData}.
+ * This is considerably smaller than a hash based set of strings for analyses with many classes.
+ */
+class IndexedDependentsSet implements DependentsSet {
+    private final String[] classNames;
+    private final int[] classIds;
+
+    IndexedDependentsSet(String[] classNames, int[] classIds) {
+        this.classNames = classNames;
+        this.classIds = classIds;
+    }
+
+    @Override
+    public Set<String> getDependentClasses() {
+        return new AbstractSet<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < classIds.length;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (next >= classIds.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return classNames[classIds[next++]];
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return classIds.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean isDependencyToAll() {
+        return false;
+    }
+
+    @Override
+    public String getDescription() {
+        return null;
+    }
+}
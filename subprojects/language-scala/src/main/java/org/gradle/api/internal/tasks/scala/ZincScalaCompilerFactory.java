@@ -16,6 +16,9 @@
 
 package org.gradle.api.internal.tasks.scala;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.typesafe.zinc.Compiler;
 import com.typesafe.zinc.SbtJars;
@@ -41,13 +44,31 @@ import xsbti.compile.JavaCompiler;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
 
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class ZincScalaCompilerFactory {
     private static final Logger LOGGER = Logging.getLogger(ZincScalaCompilerFactory.class);
+    private static final int MAX_CACHED_COMPILERS = 5;
+
+    // Compilers that have already been initialized in this daemon, keyed by Scala and Zinc classpath.
+    // A compiler daemon is reused by many compilations, so this avoids locking the Zinc cache and recreating the setup each time.
+    private static final Cache<List<List<File>>, Compiler> COMPILERS = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_COMPILERS).build();
+
+    static Compiler getOrCreateCompiler(Iterable<File> scalaClasspath, Iterable<File> zincClasspath, xsbti.Logger logger, File gradleUserHome) {
+        List<List<File>> key = ImmutableList.<List<File>>of(ImmutableList.copyOf(scalaClasspath), ImmutableList.copyOf(zincClasspath));
+        Compiler compiler = COMPILERS.getIfPresent(key);
+        if (compiler == null) {
+            compiler = createParallelSafeCompiler(scalaClasspath, zincClasspath, logger, gradleUserHome);
+            COMPILERS.put(key, compiler);
+        } else {
+            LOGGER.debug("Reusing Zinc compiler already initialized in this daemon.");
+        }
+        return compiler;
+    }
 
-    static Compiler createParallelSafeCompiler(final Iterable<File> scalaClasspath, final Iterable<File> zincClasspath, final xsbti.Logger logger, File gradleUserHome) {
+    private static Compiler createParallelSafeCompiler(final Iterable<File> scalaClasspath, final Iterable<File> zincClasspath, final xsbti.Logger logger, File gradleUserHome) {
         File zincCacheHomeDir = new File(System.getProperty(ZincScalaCompilerUtil.ZINC_CACHE_HOME_DIR_SYSTEM_PROPERTY, gradleUserHome.getAbsolutePath()));
         CacheRepository cacheRepository = ZincCompilerServices.getInstance(zincCacheHomeDir).get(CacheRepository.class);
 
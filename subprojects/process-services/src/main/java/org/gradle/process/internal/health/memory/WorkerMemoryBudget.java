@@ -0,0 +1,177 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.health.memory;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.gradle.api.Nullable;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the total heap that forked worker processes may declare at the same time.
+ *
+ * Work that would take the declared heap of all active reservations over the budget is queued until enough
+ * memory is released. A reservation is always granted when no other reservation is active, so that work declaring
+ * more heap than the budget still runs, alone. Without a budget, reservations are only recorded for the usage metrics
+ * that are logged when the build session ends.
+ */
+public class WorkerMemoryBudget implements Stoppable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WorkerMemoryBudget.class);
+    public static final String BUDGET_PROPERTY = "org.gradle.workers.internal.memory-budget";
+
+    private final long budgetBytes;
+    private final long defaultHeapBytes;
+    private final Object lock = new Object();
+    private long reservedBytes;
+    private int activeReservations;
+
+    private int reservationCount;
+    private int queuedCount;
+    private long queuedMillis;
+    private long peakReservedBytes;
+
+    /**
+     * Creates a budget using the amount of memory from the {@value #BUDGET_PROPERTY} system property, if any.
+     */
+    public WorkerMemoryBudget() {
+        this(MemoryAmount.parseNotation(System.getProperty(BUDGET_PROPERTY)), getDefaultMaximumHeapSize());
+    }
+
+    /**
+     * @param budgetBytes The budget, or -1 for no budget.
+     * @param defaultHeapBytes The heap to assume for processes that do not declare a maximum heap size.
+     */
+    @VisibleForTesting
+    WorkerMemoryBudget(long budgetBytes, long defaultHeapBytes) {
+        this.budgetBytes = budgetBytes;
+        this.defaultHeapBytes = defaultHeapBytes;
+    }
+
+    /**
+     * Reserves the given maximum heap, waiting until it fits in the budget.
+     *
+     * @param maxHeapSize The declared maximum heap, in memory amount notation. May be null, in which case the JVM default is assumed.
+     */
+    public Reservation reserve(@Nullable String maxHeapSize) {
+        return doReserve(toBytes(maxHeapSize), true);
+    }
+
+    /**
+     * Reserves the given maximum heap without waiting, for processes that cannot be queued. The reservation counts against the budget for other work.
+     *
+     * @param maxHeapSize The declared maximum heap, in memory amount notation. May be null, in which case the JVM default is assumed.
+     */
+    public Reservation reserveWithoutWaiting(@Nullable String maxHeapSize) {
+        return doReserve(toBytes(maxHeapSize), false);
+    }
+
+    private Reservation doReserve(long bytes, boolean wait) {
+        synchronized (lock) {
+            if (wait && !fits(bytes)) {
+                LOGGER.debug("Waiting for {} bytes of worker memory, {} of {} bytes reserved.", bytes, reservedBytes, budgetBytes);
+                long start = System.currentTimeMillis();
+                queuedCount++;
+                try {
+                    while (!fits(bytes)) {
+                        lock.wait();
+                    }
+                } catch (InterruptedException e) {
+                    throw UncheckedException.throwAsUncheckedException(e);
+                } finally {
+                    queuedMillis += System.currentTimeMillis() - start;
+                }
+            }
+            reservedBytes += bytes;
+            activeReservations++;
+            reservationCount++;
+            peakReservedBytes = Math.max(peakReservedBytes, reservedBytes);
+            return new DefaultReservation(bytes);
+        }
+    }
+
+    private boolean fits(long bytes) {
+        return budgetBytes < 0 || activeReservations == 0 || reservedBytes + bytes <= budgetBytes;
+    }
+
+    private void release(long bytes) {
+        synchronized (lock) {
+            reservedBytes -= bytes;
+            activeReservations--;
+            lock.notifyAll();
+        }
+    }
+
+    private long toBytes(@Nullable String maxHeapSize) {
+        long bytes = MemoryAmount.parseNotation(maxHeapSize);
+        return bytes == -1 ? defaultHeapBytes : bytes;
+    }
+
+    @VisibleForTesting
+    long getReservedBytes() {
+        synchronized (lock) {
+            return reservedBytes;
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            if (reservationCount > 0) {
+                LOGGER.info("Worker memory: {} reservations, peak {} MB declared heap{}, {} queued for a total of {} ms.",
+                    reservationCount, peakReservedBytes / 1024 / 1024, budgetBytes < 0 ? "" : " of " + budgetBytes / 1024 / 1024 + " MB budget", queuedCount, queuedMillis);
+            }
+        }
+    }
+
+    private static long getDefaultMaximumHeapSize() {
+        try {
+            return new MaximumHeapHelper().getDefaultMaximumHeapSize(TotalPhysicalMemoryProvider.getTotalPhysicalMemory());
+        } catch (UnsupportedOperationException e) {
+            return 0;
+        }
+    }
+
+    public interface Reservation {
+        /**
+         * Returns the reserved memory to the budget. Does nothing if already released.
+         */
+        void release();
+    }
+
+    private class DefaultReservation implements Reservation {
+        private final long bytes;
+        private boolean released;
+
+        private DefaultReservation(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void release() {
+            synchronized (lock) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            WorkerMemoryBudget.this.release(bytes);
+        }
+    }
+}
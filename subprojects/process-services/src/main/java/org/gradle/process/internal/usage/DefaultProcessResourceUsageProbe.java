@@ -0,0 +1,68 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage;
+
+import org.gradle.api.Nullable;
+import org.gradle.internal.os.OperatingSystem;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+public class DefaultProcessResourceUsageProbe implements ProcessResourceUsageProbe {
+    private final ProcfsProcessResourceUsage procfs = OperatingSystem.current().isLinux() ? new ProcfsProcessResourceUsage() : null;
+
+    @Override
+    public boolean isSupported() {
+        return procfs != null;
+    }
+
+    @Nullable
+    @Override
+    public ProcessResourceUsage sample(Process process) {
+        if (procfs == null) {
+            return null;
+        }
+        long pid = getPid(process);
+        if (pid < 0) {
+            return null;
+        }
+        return procfs.get(pid);
+    }
+
+    /**
+     * Returns the id of the given process, or -1 if it is not available.
+     */
+    private static long getPid(Process process) {
+        try {
+            // Java 9 and later
+            Method pidMethod = Process.class.getMethod("pid");
+            return (Long) pidMethod.invoke(process);
+        } catch (NoSuchMethodException e) {
+            // Earlier versions keep the pid in a private field of the Unix process implementation
+        } catch (Exception e) {
+            return -1;
+        }
+        try {
+            Field pidField = process.getClass().getDeclaredField("pid");
+            pidField.setAccessible(true);
+            return pidField.getInt(process);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+}
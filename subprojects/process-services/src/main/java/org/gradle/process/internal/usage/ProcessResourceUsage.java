@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage;
+
+/**
+ * The resources used by a process, as last sampled while it was running.
+ */
+public class ProcessResourceUsage {
+    public static final ProcessResourceUsage NONE = new ProcessResourceUsage(0, 0, 0, 0);
+
+    private final long cpuTimeMillis;
+    private final long peakResidentMemoryBytes;
+    private final long bytesRead;
+    private final long bytesWritten;
+
+    public ProcessResourceUsage(long cpuTimeMillis, long peakResidentMemoryBytes, long bytesRead, long bytesWritten) {
+        this.cpuTimeMillis = cpuTimeMillis;
+        this.peakResidentMemoryBytes = peakResidentMemoryBytes;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * The user and system CPU time used by the process.
+     */
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    /**
+     * The peak resident set size of the process.
+     */
+    public long getPeakResidentMemoryBytes() {
+        return peakResidentMemoryBytes;
+    }
+
+    /**
+     * The number of bytes the process caused to be read from storage.
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * The number of bytes the process caused to be written to storage.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Combines the usage of this process with the usage of another process. CPU time and I/O are summed, the peak memory is the largest of both.
+     */
+    public ProcessResourceUsage plus(ProcessResourceUsage other) {
+        return new ProcessResourceUsage(cpuTimeMillis + other.cpuTimeMillis, Math.max(peakResidentMemoryBytes, other.peakResidentMemoryBytes), bytesRead + other.bytesRead, bytesWritten + other.bytesWritten);
+    }
+
+    @Override
+    public String toString() {
+        return "{CPU time: " + cpuTimeMillis + "ms, Peak RSS: " + peakResidentMemoryBytes + ", Read: " + bytesRead + ", Written: " + bytesWritten + '}';
+    }
+}
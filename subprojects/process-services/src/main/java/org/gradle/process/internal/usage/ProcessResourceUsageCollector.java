@@ -0,0 +1,80 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage;
+
+import org.gradle.api.Nullable;
+
+/**
+ * Accumulates the resource usage of the processes started by a thread while the collector is attached to it,
+ * so that the usage can be attributed to the work running on that thread.
+ */
+public class ProcessResourceUsageCollector {
+    private static final ThreadLocal<ProcessResourceUsageCollector> CURRENT = new ThreadLocal<ProcessResourceUsageCollector>();
+
+    private final ProcessResourceUsageCollector previous;
+    private ProcessResourceUsage usage = ProcessResourceUsage.NONE;
+    private int processCount;
+
+    private ProcessResourceUsageCollector(ProcessResourceUsageCollector previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Attaches a new collector to the current thread. Must be followed by a call to {@link #detach()} from the same thread.
+     */
+    public static ProcessResourceUsageCollector attach() {
+        ProcessResourceUsageCollector collector = new ProcessResourceUsageCollector(CURRENT.get());
+        CURRENT.set(collector);
+        return collector;
+    }
+
+    /**
+     * Returns the collector attached to the current thread, if any.
+     */
+    @Nullable
+    public static ProcessResourceUsageCollector current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Detaches this collector from the current thread. Processes that were started while attached keep reporting their usage to this collector.
+     */
+    public void detach() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public synchronized void processFinished(ProcessResourceUsage processUsage) {
+        usage = usage.plus(processUsage);
+        processCount++;
+    }
+
+    /**
+     * The number of processes that have reported their usage to this collector.
+     */
+    public synchronized int getProcessCount() {
+        return processCount;
+    }
+
+    public synchronized ProcessResourceUsage getUsage() {
+        return usage;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage;
+
+import org.gradle.api.Nullable;
+
+public interface ProcessResourceUsageProbe {
+    /**
+     * Returns whether resource usage can be sampled on this platform at all. When false, {@link #sample(Process)} always returns null.
+     */
+    boolean isSupported();
+
+    /**
+     * Samples the resources used so far by the given running process.
+     *
+     * @return the usage, or null when it cannot be determined for this process or platform.
+     */
+    @Nullable
+    ProcessResourceUsage sample(Process process);
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.Files;
+import org.gradle.api.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * Reads the resource usage of a process from /proc on Linux.
+ */
+public class ProcfsProcessResourceUsage {
+    // Clock ticks per second used for the times in /proc/[pid]/stat. This is 100 on all the architectures Gradle runs on
+    private static final long USER_HZ = 100;
+    // Index of the utime field in /proc/[pid]/stat, counting from the field following the command name
+    private static final int UTIME_FIELD = 11;
+    private static final int STIME_FIELD = 12;
+
+    /**
+     * Returns the resources used so far by the given process, or null if it has exited or cannot be inspected.
+     */
+    @Nullable
+    public ProcessResourceUsage get(long pid) {
+        File procDir = new File("/proc", String.valueOf(pid));
+        try {
+            Charset charset = Charset.defaultCharset();
+            long cpuTimeMillis = parseCpuTimeMillis(Files.toString(new File(procDir, "stat"), charset));
+            long peakResidentMemoryBytes = parsePeakResidentMemory(Files.readLines(new File(procDir, "status"), charset));
+            File ioFile = new File(procDir, "io");
+            // /proc/[pid]/io is not available on kernels without task I/O accounting
+            List<String> ioLines = ioFile.canRead() ? Files.readLines(ioFile, charset) : null;
+            long bytesRead = ioLines == null ? 0 : parseIoCounter(ioLines, "read_bytes");
+            long bytesWritten = ioLines == null ? 0 : parseIoCounter(ioLines, "write_bytes");
+            return new ProcessResourceUsage(cpuTimeMillis, peakResidentMemoryBytes, bytesRead, bytesWritten);
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Given the content of /proc/[pid]/stat, returns the user and system CPU time in milliseconds.
+     */
+    @VisibleForTesting
+    long parseCpuTimeMillis(String stat) {
+        // The command name is in parentheses and may itself contain spaces and parentheses
+        String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split("\\s+");
+        long ticks = Long.parseLong(fields[UTIME_FIELD]) + Long.parseLong(fields[STIME_FIELD]);
+        return ticks * 1000 / USER_HZ;
+    }
+
+    /**
+     * Given the lines of /proc/[pid]/status, returns the peak resident set size in bytes, or 0 if not present.
+     *
+     * @param statusLines Example line: "VmHWM:	  123456 kB"
+     */
+    @VisibleForTesting
+    long parsePeakResidentMemory(List<String> statusLines) {
+        for (String line : statusLines) {
+            if (line.startsWith("VmHWM:")) {
+                String value = line.substring("VmHWM:".length()).trim();
+                return Long.parseLong(value.substring(0, value.indexOf(' '))) * 1024;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Given the lines of /proc/[pid]/io, returns the value of the given counter, or 0 if not present.
+     */
+    @VisibleForTesting
+    long parseIoCounter(List<String> ioLines, String name) {
+        String prefix = name + ":";
+        for (String line : ioLines) {
+            if (line.startsWith(prefix)) {
+                return Long.parseLong(line.substring(prefix.length()).trim());
+            }
+        }
+        return 0;
+    }
+}
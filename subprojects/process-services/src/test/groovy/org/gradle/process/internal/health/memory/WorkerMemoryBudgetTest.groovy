@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.health.memory
+
+import spock.lang.Specification
+import spock.lang.Timeout
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Timeout(30)
+class WorkerMemoryBudgetTest extends Specification {
+    static final long MB = 1024 * 1024
+
+    def "reserves declared heap or default heap when not declared"() {
+        def budget = new WorkerMemoryBudget(-1, 256 * MB)
+
+        when:
+        budget.reserve("1g")
+        budget.reserveWithoutWaiting(null)
+
+        then:
+        budget.reservedBytes == 1280 * MB
+    }
+
+    def "releasing a reservation more than once returns the memory once"() {
+        def budget = new WorkerMemoryBudget(1024 * MB, 0)
+        def first = budget.reserve("512m")
+        budget.reserve("256m")
+
+        when:
+        first.release()
+        first.release()
+
+        then:
+        budget.reservedBytes == 256 * MB
+    }
+
+    def "grants reservation larger than the budget when nothing else is reserved"() {
+        def budget = new WorkerMemoryBudget(1024 * MB, 0)
+
+        when:
+        budget.reserve("2g")
+
+        then:
+        budget.reservedBytes == 2048 * MB
+    }
+
+    def "reservation without waiting may exceed the budget"() {
+        def budget = new WorkerMemoryBudget(1024 * MB, 0)
+        budget.reserve("768m")
+
+        when:
+        budget.reserveWithoutWaiting("768m")
+
+        then:
+        budget.reservedBytes == 1536 * MB
+    }
+
+    def "queues reservation until enough memory is released"() {
+        def budget = new WorkerMemoryBudget(1024 * MB, 0)
+        def first = budget.reserve("768m")
+        def granted = new CountDownLatch(1)
+
+        when:
+        def thread = Thread.start {
+            budget.reserve("512m")
+            granted.countDown()
+        }
+
+        then:
+        !granted.await(200, TimeUnit.MILLISECONDS)
+
+        when:
+        first.release()
+
+        then:
+        granted.await(10, TimeUnit.SECONDS)
+        budget.reservedBytes == 512 * MB
+
+        cleanup:
+        thread?.join()
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.process.internal.usage
+
+import spock.lang.Specification
+
+class ProcfsProcessResourceUsageTest extends Specification {
+    def usage = new ProcfsProcessResourceUsage()
+
+    def "parses cpu time from /proc/[pid]/stat"() {
+        expect:
+        usage.parseCpuTimeMillis("12345 (java) S 1 12345 12345 0 -1 4194560 84051 0 2 0 1234 56 0 0 20 0 31 0 4513405 5432102912 58771 18446744073709551615 1 1 0 0 0 0 0 4096 16796879 0 0 0 17 3 0 0 0 0 0") == 12_900L
+    }
+
+    def "parses cpu time when command name contains spaces and parentheses"() {
+        expect:
+        usage.parseCpuTimeMillis("42 (my (odd) cmd) R 1 42 42 0 -1 4194304 100 0 0 0 7 3 0 0 20 0 1 0 100 1000 10") == 100L
+    }
+
+    def "parses peak resident memory from /proc/[pid]/status"() {
+        expect:
+        usage.parsePeakResidentMemory(["Name:\tjava", "VmPeak:\t 5304788 kB", "VmHWM:\t  235084 kB", "VmRSS:\t  230000 kB"]) == 240_726_016L
+        usage.parsePeakResidentMemory(["Name:\tkthreadd"]) == 0L
+    }
+
+    def "parses counters from /proc/[pid]/io"() {
+        def lines = ["rchar: 323934931", "wchar: 323929600", "syscr: 632687", "syscw: 632675", "read_bytes: 4096", "write_bytes: 323932160", "cancelled_write_bytes: 0"]
+
+        expect:
+        usage.parseIoCounter(lines, "read_bytes") == 4096L
+        usage.parseIoCounter(lines, "write_bytes") == 323_932_160L
+        usage.parseIoCounter(lines, "unknown") == 0L
+    }
+}
@@ -24,6 +24,7 @@ import org.gradle.api.internal.tasks.testing.TestResultProcessor;
 import org.gradle.api.internal.tasks.testing.WorkerTestClassProcessorFactory;
 import org.gradle.internal.remote.ObjectConnection;
 import org.gradle.process.JavaForkOptions;
+import org.gradle.process.internal.health.memory.WorkerMemoryBudget;
 import org.gradle.process.internal.worker.WorkerProcess;
 import org.gradle.process.internal.worker.WorkerProcessBuilder;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
@@ -40,17 +41,20 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
     private final Iterable<File> classPath;
     private final Action<WorkerProcessBuilder> buildConfigAction;
     private final ModuleRegistry moduleRegistry;
+    private final WorkerMemoryBudget memoryBudget;
+    private WorkerMemoryBudget.Reservation memoryReservation;
     private RemoteTestClassProcessor remoteProcessor;
     private WorkerProcess workerProcess;
     private TestResultProcessor resultProcessor;
 
-    public ForkingTestClassProcessor(WorkerProcessFactory workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction, ModuleRegistry moduleRegistry) {
+    public ForkingTestClassProcessor(WorkerProcessFactory workerFactory, WorkerTestClassProcessorFactory processorFactory, JavaForkOptions options, Iterable<File> classPath, Action<WorkerProcessBuilder> buildConfigAction, ModuleRegistry moduleRegistry, WorkerMemoryBudget memoryBudget) {
         this.workerFactory = workerFactory;
         this.processorFactory = processorFactory;
         this.options = options;
         this.classPath = classPath;
         this.buildConfigAction = buildConfigAction;
         this.moduleRegistry = moduleRegistry;
+        this.memoryBudget = memoryBudget;
     }
 
     @Override
@@ -76,6 +80,8 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
         builder.getJavaCommand().jvmArgs("-Dorg.gradle.native=false");
         buildConfigAction.execute(builder);
 
+        // Test workers cannot be queued once the test run has started, but their heap counts against the budget for other worker processes
+        memoryReservation = memoryBudget.reserveWithoutWaiting(options.getMaxHeapSize());
         workerProcess = builder.build();
         workerProcess.start();
 
@@ -111,9 +117,15 @@ public class ForkingTestClassProcessor implements TestClassProcessor {
 
     @Override
     public void stop() {
-        if (remoteProcessor != null) {
-            remoteProcessor.stop();
-            workerProcess.waitForStop();
+        try {
+            if (remoteProcessor != null) {
+                remoteProcessor.stop();
+                workerProcess.waitForStop();
+            }
+        } finally {
+            if (memoryReservation != null) {
+                memoryReservation.release();
+            }
         }
     }
 }
@@ -25,6 +25,7 @@ import org.gradle.internal.classpath.ClassPath
 import org.gradle.internal.remote.ObjectConnection
 import org.gradle.process.JavaForkOptions
 import org.gradle.process.internal.JavaExecHandleBuilder
+import org.gradle.process.internal.health.memory.WorkerMemoryBudget
 import org.gradle.process.internal.worker.WorkerProcess
 import org.gradle.process.internal.worker.WorkerProcessBuilder
 import org.gradle.process.internal.worker.WorkerProcessFactory
@@ -36,9 +37,10 @@ class ForkingTestClassProcessorTest extends Specification {
     WorkerProcessBuilder workerProcessBuilder = Mock(WorkerProcessBuilder)
     WorkerProcess workerProcess = Mock(WorkerProcess)
     ModuleRegistry moduleRegistry = Mock(ModuleRegistry)
+    WorkerMemoryBudget memoryBudget = Mock(WorkerMemoryBudget)
 
     @Subject
-        processor = Spy(ForkingTestClassProcessor, constructorArgs: [workerProcessFactory, Mock(WorkerTestClassProcessorFactory), Mock(JavaForkOptions), [new File("classpath.jar")], Mock(Action), moduleRegistry])
+        processor = Spy(ForkingTestClassProcessor, constructorArgs: [workerProcessFactory, Mock(WorkerTestClassProcessorFactory), Mock(JavaForkOptions), [new File("classpath.jar")], Mock(Action), moduleRegistry, memoryBudget])
 
     def "acquires worker lease and starts worker process on first test"() {
         def test1 = Mock(TestClassRunInfo)
@@ -73,6 +75,36 @@ class ForkingTestClassProcessorTest extends Specification {
         1 * workerProcessBuilder.setImplementationClasspath(_) >> { assert it[0].size() == 16 }
     }
 
+    def "reserves heap of worker process from memory budget until stopped"() {
+        def reservation = Mock(WorkerMemoryBudget.Reservation)
+        def forkOptions = Stub(JavaForkOptions) { getMaxHeapSize() >> "512m" }
+        def processor = new ForkingTestClassProcessor(workerProcessFactory, Mock(WorkerTestClassProcessorFactory), forkOptions, [new File("classpath.jar")], Mock(Action), moduleRegistry, memoryBudget)
+        def remoteProcessor = Mock(RemoteTestClassProcessor)
+        _ * moduleRegistry.getModule(_) >> { module(it[0]) }
+        _ * moduleRegistry.getExternalModule(_) >> { module(it[0]) }
+        _ * workerProcessFactory.create(_) >> workerProcessBuilder
+        _ * workerProcessBuilder.build() >> workerProcess
+        _ * workerProcessBuilder.getJavaCommand() >> Stub(JavaExecHandleBuilder)
+        _ * workerProcess.getConnection() >> Stub(ObjectConnection) { addOutgoing(_) >> remoteProcessor }
+
+        when:
+        processor.processTestClass(Mock(TestClassRunInfo))
+
+        then:
+        1 * memoryBudget.reserveWithoutWaiting("512m") >> reservation
+        0 * reservation.release()
+
+        when:
+        processor.stop()
+
+        then:
+        1 * remoteProcessor.stop()
+        1 * workerProcess.waitForStop()
+
+        then:
+        1 * reservation.release()
+    }
+
     def module(String module) {
         return Stub(Module) {
             _ * getImplementationClasspath() >> {
@@ -19,8 +19,10 @@ package org.gradle.api.internal.tasks.testing.detection;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.gradle.api.GradleException;
+import org.gradle.api.internal.hash.FileHasher;
 import org.gradle.api.internal.tasks.testing.DefaultTestClassRunInfo;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
+import org.gradle.internal.Factory;
 import org.gradle.util.internal.Java9ClassReader;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.Type;
@@ -31,6 +33,7 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -46,16 +49,21 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
     private List<File> testClassDirectories;
     private final ClassFileExtractionManager classFileExtractionManager;
     private final Map<File, Boolean> superClasses;
+    private final Set<File> extractedLibraryClassFiles;
     private TestClassProcessor testClassProcessor;
     private final List<String> knownTestCaseClassNames;
 
     private Set<File> testClassesDirectories;
     private Set<File> testClasspath;
 
+    private TestClassDetectionCache detectionCache;
+    private FileHasher fileHasher;
+
     protected AbstractTestFrameworkDetector(ClassFileExtractionManager classFileExtractionManager) {
         assert classFileExtractionManager != null;
         this.classFileExtractionManager = classFileExtractionManager;
         this.superClasses = new HashMap<File, Boolean>();
+        this.extractedLibraryClassFiles = new HashSet<File>();
         this.knownTestCaseClassNames = new ArrayList<String>();
         addKnownTestCaseClassNames(TEST_CASE, GROOVY_TEST_CASE);
     }
@@ -86,7 +94,11 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
             return null;
         } else {
             // super test class file not in test class directories
-            return classFileExtractionManager.getLibraryClassFile(superClassName);
+            File libraryClassFile = classFileExtractionManager.getLibraryClassFile(superClassName);
+            if (libraryClassFile != null) {
+                extractedLibraryClassFiles.add(libraryClassFile);
+            }
+            return libraryClassFile;
         }
     }
 
@@ -105,12 +117,26 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
                 if (file.isDirectory()) {
                     testClassDirectories.add(file);
                 } else if (file.isFile() && hasExtension(file, ".jar")) {
-                    classFileExtractionManager.addLibraryJar(file);
+                    addLibraryJar(file);
                 }
             }
         }
     }
 
+    private void addLibraryJar(final File libraryJar) {
+        if (detectionCache == null) {
+            classFileExtractionManager.addLibraryJar(libraryJar);
+            return;
+        }
+        List<String> packages = detectionCache.getJarPackages(fileHasher.hash(libraryJar), new Factory<List<String>>() {
+            @Override
+            public List<String> create() {
+                return classFileExtractionManager.listLibraryJarPackages(libraryJar);
+            }
+        });
+        classFileExtractionManager.addLibraryJar(libraryJar, packages);
+    }
+
     @Override
     public void setTestClasses(Set<File> testClassesDirectories) {
         this.testClassesDirectories = testClassesDirectories;
@@ -121,7 +147,29 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
         this.testClasspath = testClasspath;
     }
 
-    protected TestClassVisitor classVisitor(final File testClassFile) {
+    @Override
+    public void setDetectionCache(TestClassDetectionCache detectionCache, FileHasher fileHasher) {
+        this.detectionCache = detectionCache;
+        this.fileHasher = fileHasher;
+    }
+
+    /**
+     * Reads the header of the given class file. When a detection cache is available, the result is reused for any class file with the same content.
+     * Class files extracted from library jars are always read, as they are extracted to a new temporary file for each build.
+     */
+    protected TestClassHeader classHeader(final File testClassFile) {
+        if (detectionCache == null || extractedLibraryClassFiles.contains(testClassFile)) {
+            return readClassHeader(testClassFile);
+        }
+        return detectionCache.getClassHeader(getClass(), fileHasher.hash(testClassFile), new Factory<TestClassHeader>() {
+            @Override
+            public TestClassHeader create() {
+                return readClassHeader(testClassFile);
+            }
+        });
+    }
+
+    private TestClassHeader readClassHeader(File testClassFile) {
         final TestClassVisitor classVisitor = createClassVisitor();
 
         InputStream classStream = null;
@@ -135,7 +183,7 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
             IOUtils.closeQuietly(classStream);
         }
 
-        return classVisitor;
+        return new TestClassHeader(classVisitor);
     }
 
     @Override
@@ -165,9 +213,9 @@ public abstract class AbstractTestFrameworkDetector<T extends TestClassVisitor>
      * In none super class mode a test class is published when the class is a test and it is not abstract. In super class mode it must not publish the class otherwise it will get published multiple
      * times (for each extending class).
      */
-    protected void publishTestClass(boolean isTest, TestClassVisitor classVisitor, boolean superClass) {
-        if (isTest && !classVisitor.isAbstract() && !superClass) {
-            String className = Type.getObjectType(classVisitor.getClassName()).getClassName();
+    protected void publishTestClass(boolean isTest, TestClassHeader classHeader, boolean superClass) {
+        if (isTest && !classHeader.isAbstract() && !superClass) {
+            String className = Type.getObjectType(classHeader.getClassName()).getClassName();
             testClassProcessor.processTestClass(new DefaultTestClassRunInfo(className));
         }
     }
@@ -52,17 +52,41 @@ public class ClassFileExtractionManager {
      * @param libraryJar Jar file to add to the index.
      */
     public void addLibraryJar(final File libraryJar) {
+        addLibraryJar(libraryJar, listLibraryJarPackages(libraryJar));
+    }
+
+    /**
+     * Add the given packages of the jar file to the package <> jar(s) index.
+     *
+     * @param libraryJar Jar file to add to the index.
+     * @param packages The packages contained in the jar file, as returned by {@link #listLibraryJarPackages(File)}.
+     */
+    public void addLibraryJar(File libraryJar, List<String> packages) {
+        for (String packageName : packages) {
+            Set<File> jarFiles = packageJarFilesMappings.get(packageName);
+            if (jarFiles == null) {
+                jarFiles = new TreeSet<File>();
+            }
+            jarFiles.add(libraryJar);
+
+            packageJarFilesMappings.put(packageName, jarFiles);
+        }
+    }
+
+    /**
+     * Lists the packages found in the jar file.
+     *
+     * @param libraryJar Jar file to scan.
+     * @return The package names, in the form used by the package <> jar(s) index.
+     */
+    public List<String> listLibraryJarPackages(File libraryJar) {
+        final List<String> packages = new ArrayList<String>();
         new JarFilePackageLister().listJarPackages(libraryJar, new JarFilePackageListener() {
             public void receivePackage(String packageName) {
-                Set<File> jarFiles = packageJarFilesMappings.get(packageName);
-                if (jarFiles == null) {
-                    jarFiles = new TreeSet<File>();
-                }
-                jarFiles.add(libraryJar);
-
-                packageJarFilesMappings.put(packageName, jarFiles);
+                packages.add(packageName);
             }
         });
+        return packages;
     }
 
     /**
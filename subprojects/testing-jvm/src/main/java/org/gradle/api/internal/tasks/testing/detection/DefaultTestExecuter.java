@@ -19,6 +19,7 @@ package org.gradle.api.internal.tasks.testing.detection;
 import com.google.common.collect.ImmutableSet;
 import org.gradle.api.file.FileTree;
 import org.gradle.api.internal.classpath.ModuleRegistry;
+import org.gradle.api.internal.hash.FileHasher;
 import org.gradle.api.internal.tasks.testing.TestClassProcessor;
 import org.gradle.api.internal.tasks.testing.TestFramework;
 import org.gradle.api.internal.tasks.testing.TestResultProcessor;
@@ -36,6 +37,7 @@ import org.gradle.internal.actor.ActorFactory;
 import org.gradle.internal.work.WorkerLeaseRegistry;
 import org.gradle.internal.operations.BuildOperationExecutor;
 import org.gradle.internal.time.TrueTimeProvider;
+import org.gradle.process.internal.health.memory.WorkerMemoryBudget;
 import org.gradle.process.internal.worker.WorkerProcessFactory;
 
 import java.io.File;
@@ -53,14 +55,20 @@ public class DefaultTestExecuter implements TestExecuter {
     private final ModuleRegistry moduleRegistry;
     private final WorkerLeaseRegistry workerLeaseRegistry;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final TestClassDetectionCache detectionCache;
+    private final FileHasher fileHasher;
+    private final WorkerMemoryBudget memoryBudget;
     private final int maxWorkerCount;
 
-    public DefaultTestExecuter(WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor, int maxWorkerCount) {
+    public DefaultTestExecuter(WorkerProcessFactory workerFactory, ActorFactory actorFactory, ModuleRegistry moduleRegistry, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor, TestClassDetectionCache detectionCache, FileHasher fileHasher, WorkerMemoryBudget memoryBudget, int maxWorkerCount) {
         this.workerFactory = workerFactory;
         this.actorFactory = actorFactory;
         this.moduleRegistry = moduleRegistry;
         this.workerLeaseRegistry = workerLeaseRegistry;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.detectionCache = detectionCache;
+        this.fileHasher = fileHasher;
+        this.memoryBudget = memoryBudget;
         this.maxWorkerCount = maxWorkerCount;
     }
 
@@ -73,7 +81,7 @@ public class DefaultTestExecuter implements TestExecuter {
         final Factory<TestClassProcessor> forkingProcessorFactory = new Factory<TestClassProcessor>() {
             public TestClassProcessor create() {
                 return new ForkingTestClassProcessor(workerFactory, testInstanceFactory, testTask,
-                    classpath, testFramework.getWorkerConfigurationAction(), moduleRegistry);
+                    classpath, testFramework.getWorkerConfigurationAction(), moduleRegistry, memoryBudget);
             }
         };
         final Factory<TestClassProcessor> reforkingProcessorFactory = new Factory<TestClassProcessor>() {
@@ -97,6 +105,7 @@ public class DefaultTestExecuter implements TestExecuter {
             TestFrameworkDetector testFrameworkDetector = testFramework.getDetector();
             testFrameworkDetector.setTestClasses(testTask.getTestClassesDirs().getFiles());
             testFrameworkDetector.setTestClasspath(classpath);
+            testFrameworkDetector.setDetectionCache(detectionCache, fileHasher);
             detector = new DefaultTestClassScanner(testClassFiles, testFrameworkDetector, processor);
         } else {
             detector = new DefaultTestClassScanner(testClassFiles, null, processor);
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.detection;
+
+import com.google.common.hash.HashCode;
+import net.jcip.annotations.ThreadSafe;
+import org.gradle.api.Transformer;
+import org.gradle.api.internal.cache.CrossBuildInMemoryCache;
+import org.gradle.api.internal.cache.CrossBuildInMemoryCacheFactory;
+import org.gradle.internal.Factory;
+
+import java.util.List;
+
+/**
+ * Retains the results of reading test class files and listing the packages of library jars across builds, keyed by the hash of the file content.
+ * This means that only new or changed class files and jars need to be read when test classes are detected again.
+ */
+@ThreadSafe
+public class TestClassDetectionCache {
+    private final CrossBuildInMemoryCache<ClassHeaderKey, TestClassHeader> classHeaders;
+    private final CrossBuildInMemoryCache<HashCode, List<String>> jarPackages;
+
+    public TestClassDetectionCache(CrossBuildInMemoryCacheFactory cacheFactory) {
+        this.classHeaders = cacheFactory.newCache();
+        this.jarPackages = cacheFactory.newCache();
+    }
+
+    /**
+     * Locates the header for the class file with the given content hash, as read by the given type of detector.
+     */
+    public TestClassHeader getClassHeader(Class<?> detectorType, HashCode classFileHash, final Factory<TestClassHeader> reader) {
+        return classHeaders.get(new ClassHeaderKey(detectorType, classFileHash), new Transformer<TestClassHeader, ClassHeaderKey>() {
+            @Override
+            public TestClassHeader transform(ClassHeaderKey key) {
+                return reader.create();
+            }
+        });
+    }
+
+    /**
+     * Locates the packages contained in the jar with the given content hash.
+     */
+    public List<String> getJarPackages(HashCode jarHash, final Factory<List<String>> lister) {
+        return jarPackages.get(jarHash, new Transformer<List<String>, HashCode>() {
+            @Override
+            public List<String> transform(HashCode hashCode) {
+                return lister.create();
+            }
+        });
+    }
+
+    private static class ClassHeaderKey {
+        private final Class<?> detectorType;
+        private final HashCode classFileHash;
+
+        private ClassHeaderKey(Class<?> detectorType, HashCode classFileHash) {
+            this.detectorType = detectorType;
+            this.classFileHash = classFileHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || obj.getClass() != getClass()) {
+                return false;
+            }
+            ClassHeaderKey other = (ClassHeaderKey) obj;
+            return detectorType.equals(other.detectorType) && classFileHash.equals(other.classFileHash);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * detectorType.hashCode() + classFileHash.hashCode();
+        }
+    }
+}
@@ -74,6 +74,14 @@ public class ClassTestResults extends CompositeTestResults {
         return results;
     }
 
+    /**
+     * Discards the results of the individual tests of this class, once its page has been rendered. The counts of this class are kept, as are
+     * the failed and ignored tests, which are listed on the pages of the package and the overview.
+     */
+    public void discardTestResults() {
+        results.clear();
+    }
+
     public TestResult addTest(String testName, long duration) {
         TestResult test = new TestResult(testName, duration, this);
         results.add(test);
@@ -15,8 +15,12 @@
  */
 package org.gradle.api.internal.tasks.testing.junit.report;
 
+import com.google.common.hash.HashCode;
 import org.gradle.api.Action;
 import org.gradle.api.GradleException;
+import org.gradle.api.Nullable;
+import org.gradle.api.internal.tasks.testing.junit.result.ReportContentHashes;
+import org.gradle.api.internal.tasks.testing.junit.result.TestClassContentHasher;
 import org.gradle.api.internal.tasks.testing.junit.result.TestClassResult;
 import org.gradle.api.internal.tasks.testing.junit.result.TestFailure;
 import org.gradle.api.internal.tasks.testing.junit.result.TestMethodResult;
@@ -42,10 +46,21 @@ import static org.gradle.api.tasks.testing.TestResult.ResultType.SKIPPED;
 
 public class DefaultTestReport implements TestReporter {
     private final BuildOperationExecutor buildOperationExecutor;
+    private final boolean skipUnchangedClassPages;
     private final static Logger LOG = Logging.getLogger(DefaultTestReport.class);
 
     public DefaultTestReport(BuildOperationExecutor buildOperationExecutor) {
+        this(buildOperationExecutor, false);
+    }
+
+    /**
+     * @param skipUnchangedClassPages Whether to skip rendering the pages of classes whose results and output have not changed since the previous
+     * generation into the same directory. This is only worthwhile for results that are carried over between generations, as when aggregating the
+     * results of several test tasks. The results of tests that have been run again always differ, as they include the time of the run.
+     */
+    public DefaultTestReport(BuildOperationExecutor buildOperationExecutor, boolean skipUnchangedClassPages) {
         this.buildOperationExecutor = buildOperationExecutor;
+        this.skipUnchangedClassPages = skipUnchangedClassPages;
     }
 
     @Override
@@ -53,48 +68,50 @@ public class DefaultTestReport implements TestReporter {
         LOG.info("Generating HTML test report...");
 
         Timer clock = Timers.startTimer();
-        AllTestResults model = loadModelFromProvider(resultsProvider);
-        generateFiles(model, resultsProvider, reportDir);
+        generateFiles(resultsProvider, reportDir);
         LOG.info("Finished generating test html results ({}) into: {}", clock.getElapsed(), reportDir);
     }
 
-    private AllTestResults loadModelFromProvider(TestResultsProvider resultsProvider) {
-        final AllTestResults model = new AllTestResults();
-        resultsProvider.visitClasses(new Action<TestClassResult>() {
-            public void execute(TestClassResult classResult) {
-                model.addTestClass(classResult.getId(), classResult.getClassName());
-                List<TestMethodResult> collectedResults = classResult.getResults();
-                for (TestMethodResult collectedResult : collectedResults) {
-                    final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
-                    if (collectedResult.getResultType() == SKIPPED) {
-                        testResult.setIgnored();
-                    } else {
-                        List<TestFailure> failures = collectedResult.getFailures();
-                        for (TestFailure failure : failures) {
-                            testResult.addFailure(failure);
-                        }
-                    }
-                }
-            }
-        });
-        return model;
-    }
-
-    private void generateFiles(AllTestResults model, final TestResultsProvider resultsProvider, File reportDir) {
+    /**
+     * Renders the page of each class as soon as the class has been visited, after which only the summary of the class is kept in the model.
+     * The package pages and the overview are rendered once all classes have been visited, as the classes are not visited in any particular order.
+     */
+    private void generateFiles(final TestResultsProvider resultsProvider, final File reportDir) {
+        final TestClassContentHasher contentHasher = new TestClassContentHasher(resultsProvider);
+        final ReportContentHashes contentHashes;
+        if (skipUnchangedClassPages) {
+            contentHashes = ReportContentHashes.load(reportDir);
+        } else {
+            contentHashes = null;
+            ReportContentHashes.discard(reportDir);
+        }
         try {
             HtmlReportRenderer htmlRenderer = new HtmlReportRenderer();
-            htmlRenderer.render(model, new ReportRenderer<AllTestResults, HtmlReportBuilder>() {
+            htmlRenderer.render(new AllTestResults(), new ReportRenderer<AllTestResults, HtmlReportBuilder>() {
                 @Override
                 public void render(final AllTestResults model, final HtmlReportBuilder output) throws IOException {
+                    // Class pages are rendered on worker threads while this thread keeps visiting classes, which updates the counters and
+                    // failure and ignored sets of the shared PackageTestResults and AllTestResults. A class page must therefore only read the
+                    // state of its own ClassTestResults, which is complete once queued, and never the state of its package or of the overview.
+                    buildOperationExecutor.runAll(new Action<BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>>>() {
+                        @Override
+                        public void execute(final BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>> queue) {
+                            final ClassPageContentHashes classPageContentHashes = contentHashes == null ? null : new ClassPageContentHashes(contentHasher, contentHashes, reportDir);
+                            resultsProvider.visitClasses(new Action<TestClassResult>() {
+                                public void execute(TestClassResult classResult) {
+                                    ClassTestResults classResults = addToModel(model, classResult);
+                                    HashCode resultsHash = classPageContentHashes == null ? null : contentHasher.hashResults(classResult);
+                                    queue.add(new ClassPageFileGenerator(classResults, resultsHash, new ClassPageRenderer(resultsProvider), output, classPageContentHashes));
+                                }
+                            });
+                        }
+                    });
                     buildOperationExecutor.runAll(new Action<BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>>>() {
                         @Override
                         public void execute(BuildOperationQueue<HtmlReportFileGenerator<? extends CompositeTestResults>> queue) {
                             queue.add(generator("index.html", model, new OverviewPageRenderer(), output));
                             for (PackageTestResults packageResults : model.getPackages()) {
                                 queue.add(generator(packageResults.getBaseUrl(), packageResults, new PackagePageRenderer(), output));
-                                for (ClassTestResults classResults : packageResults.getClasses()) {
-                                    queue.add(generator(classResults.getBaseUrl(), classResults, new ClassPageRenderer(resultsProvider), output));
-                                }
                             }
                         }
                     });
@@ -103,12 +120,90 @@ public class DefaultTestReport implements TestReporter {
         } catch (Exception e) {
             throw new GradleException(String.format("Could not generate test report to '%s'.", reportDir), e);
         }
+        if (contentHashes != null) {
+            contentHashes.save();
+        }
+    }
+
+    private static ClassTestResults addToModel(AllTestResults model, TestClassResult classResult) {
+        ClassTestResults classResults = model.addTestClass(classResult.getId(), classResult.getClassName());
+        List<TestMethodResult> collectedResults = classResult.getResults();
+        for (TestMethodResult collectedResult : collectedResults) {
+            final TestResult testResult = model.addTest(classResult.getId(), classResult.getClassName(), collectedResult.getName(), collectedResult.getDuration());
+            if (collectedResult.getResultType() == SKIPPED) {
+                testResult.setIgnored();
+            } else {
+                List<TestFailure> failures = collectedResult.getFailures();
+                for (TestFailure failure : failures) {
+                    testResult.addFailure(failure);
+                }
+            }
+        }
+        return classResults;
     }
 
     public static <T extends CompositeTestResults> HtmlReportFileGenerator<T> generator(String fileUrl, T results, PageRenderer<T> renderer, HtmlReportBuilder output) {
         return new HtmlReportFileGenerator<T>(fileUrl, results, renderer, output);
     }
 
+    /**
+     * Generates the page of a test class. When content hashes are given, the page is skipped if it already exists and was generated from the same
+     * results and output.
+     */
+    private static class ClassPageFileGenerator extends HtmlReportFileGenerator<ClassTestResults> {
+        private final ClassTestResults results;
+        private final HashCode resultsHash;
+        private final ClassPageContentHashes contentHashes;
+
+        ClassPageFileGenerator(ClassTestResults results, @Nullable HashCode resultsHash, PageRenderer<ClassTestResults> renderer, HtmlReportBuilder output, @Nullable ClassPageContentHashes contentHashes) {
+            super(results.getBaseUrl(), results, renderer, output);
+            this.results = results;
+            this.resultsHash = resultsHash;
+            this.contentHashes = contentHashes;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            try {
+                if (contentHashes == null) {
+                    super.run(context);
+                    return;
+                }
+                HashCode contentHash = contentHashes.hash(results, resultsHash);
+                if (!contentHashes.isUpToDate(results, contentHash)) {
+                    super.run(context);
+                    contentHashes.generated(results, contentHash);
+                }
+            } finally {
+                results.discardTestResults();
+            }
+        }
+    }
+
+    private static class ClassPageContentHashes {
+        private final TestClassContentHasher contentHasher;
+        private final ReportContentHashes contentHashes;
+        private final File reportDir;
+
+        ClassPageContentHashes(TestClassContentHasher contentHasher, ReportContentHashes contentHashes, File reportDir) {
+            this.contentHasher = contentHasher;
+            this.contentHashes = contentHashes;
+            this.reportDir = reportDir;
+        }
+
+        HashCode hash(ClassTestResults results, HashCode resultsHash) {
+            return contentHasher.hashWithOutput(resultsHash, results.getId());
+        }
+
+        boolean isUpToDate(ClassTestResults results, HashCode contentHash) {
+            return contentHashes.isUpToDate(results.getBaseUrl(), new File(reportDir, results.getBaseUrl()), contentHash);
+        }
+
+        void generated(ClassTestResults results, HashCode contentHash) {
+            contentHashes.generated(results.getBaseUrl(), contentHash);
+        }
+    }
+
     private static class HtmlReportFileGenerator<T extends CompositeTestResults> implements RunnableBuildOperation {
         private final String fileUrl;
         private final T results;
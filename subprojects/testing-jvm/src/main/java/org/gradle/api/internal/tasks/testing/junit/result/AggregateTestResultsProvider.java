@@ -28,6 +28,7 @@ import org.gradle.internal.concurrent.CompositeStoppable;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
@@ -42,28 +43,63 @@ public class AggregateTestResultsProvider implements TestResultsProvider {
         this.providers = providers;
     }
 
+    /**
+     * Visits the classes of each provider in two passes, so that the results of all classes need not be held in memory at the same time.
+     *
+     * The first pass assigns an id to each class name and records which providers contain results for it, discarding the results themselves.
+     * The second pass visits each class as soon as all of its results have been read again. Only the results of classes
+     * that are split across several providers are held until then.
+     */
     @Override
     public void visitClasses(final Action<? super TestClassResult> visitor) {
-        final Map<String, OverlayedIdProxyingTestClassResult> aggregatedTestResults = new LinkedHashMap<String, OverlayedIdProxyingTestClassResult>();
+        final Map<String, AggregatedClass> aggregatedClasses = new HashMap<String, AggregatedClass>();
         classOutputProviders = ArrayListMultimap.create();
         final AtomicLong newIdCounter = new AtomicLong(0L);
         for (final TestResultsProvider provider : providers) {
             provider.visitClasses(new Action<TestClassResult>() {
                 public void execute(final TestClassResult classResult) {
-                    OverlayedIdProxyingTestClassResult newTestResult = aggregatedTestResults.get(classResult.getClassName());
-                    if (newTestResult != null) {
-                        newTestResult.addTestClassResult(classResult);
+                    AggregatedClass aggregatedClass = aggregatedClasses.get(classResult.getClassName());
+                    if (aggregatedClass == null) {
+                        aggregatedClass = new AggregatedClass(newIdCounter.incrementAndGet());
+                        aggregatedClasses.put(classResult.getClassName(), aggregatedClass);
+                    }
+                    aggregatedClass.remainingParts++;
+                    classOutputProviders.put(aggregatedClass.id, new DelegateProvider(classResult.getId(), provider));
+                }
+            });
+        }
+
+        for (TestResultsProvider provider : providers) {
+            provider.visitClasses(new Action<TestClassResult>() {
+                public void execute(final TestClassResult classResult) {
+                    AggregatedClass aggregatedClass = aggregatedClasses.get(classResult.getClassName());
+                    if (aggregatedClass == null || aggregatedClass.remainingParts == 0) {
+                        // Not seen by the first pass, so the results changed while reading them
+                        throw new IllegalStateException(String.format("Unexpected test results for class %s.", classResult.getClassName()));
+                    }
+                    if (aggregatedClass.result == null) {
+                        aggregatedClass.result = new OverlayedIdProxyingTestClassResult(aggregatedClass.id, classResult);
                     } else {
-                        long newId = newIdCounter.incrementAndGet();
-                        newTestResult = new OverlayedIdProxyingTestClassResult(newId, classResult);
-                        aggregatedTestResults.put(classResult.getClassName(), newTestResult);
+                        aggregatedClass.result.addTestClassResult(classResult);
+                    }
+                    aggregatedClass.remainingParts--;
+                    if (aggregatedClass.remainingParts == 0) {
+                        OverlayedIdProxyingTestClassResult result = aggregatedClass.result;
+                        aggregatedClass.result = null;
+                        visitor.execute(result);
                     }
-                    classOutputProviders.put(newTestResult.getId(), new DelegateProvider(classResult.getId(), provider));
                 }
             });
         }
-        for (OverlayedIdProxyingTestClassResult classResult : aggregatedTestResults.values()) {
-            visitor.execute(classResult);
+    }
+
+    private static class AggregatedClass {
+        private final long id;
+        private int remainingParts;
+        private OverlayedIdProxyingTestClassResult result;
+
+        private AggregatedClass(long id) {
+            this.id = id;
         }
     }
 
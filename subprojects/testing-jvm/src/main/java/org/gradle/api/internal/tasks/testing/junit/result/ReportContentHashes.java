@@ -0,0 +1,97 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.junit.result;
+
+import com.google.common.hash.HashCode;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.util.GFileUtils;
+import org.gradle.util.GUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The content hashes of the files generated into a report directory, used to skip rewriting files whose content would not change.
+ *
+ * The hashes of the previous generation are removed from disk when loaded and only written back by {@link #save()}, so that files from
+ * a generation that did not complete are always rewritten.
+ */
+public class ReportContentHashes {
+    static final String FILE_NAME = ".report-content-hashes";
+
+    private final File hashesFile;
+    private final Properties previous;
+    private final ConcurrentMap<String, String> current = new ConcurrentHashMap<String, String>();
+
+    private ReportContentHashes(File hashesFile, Properties previous) {
+        this.hashesFile = hashesFile;
+        this.previous = previous;
+    }
+
+    public static ReportContentHashes load(File reportDir) {
+        File hashesFile = new File(reportDir, FILE_NAME);
+        Properties previous = new Properties();
+        if (hashesFile.isFile()) {
+            previous = GUtil.loadProperties(hashesFile);
+            GFileUtils.deleteQuietly(hashesFile);
+        }
+        return new ReportContentHashes(hashesFile, previous);
+    }
+
+    /**
+     * Removes the hashes of a previous generation, for a report that is generated without them. Otherwise a later generation could skip files
+     * that have been overwritten in the meantime.
+     */
+    public static void discard(File reportDir) {
+        GFileUtils.deleteQuietly(new File(reportDir, FILE_NAME));
+    }
+
+    /**
+     * Returns true when the given file exists and was generated from content with the given hash. The hash is kept for the next generation.
+     */
+    public boolean isUpToDate(String path, File file, HashCode hash) {
+        String hashString = hash.toString();
+        if (hashString.equals(previous.getProperty(path)) && file.isFile()) {
+            current.put(path, hashString);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the hash of the content a file was generated from.
+     */
+    public void generated(String path, HashCode hash) {
+        current.put(path, hash.toString());
+    }
+
+    public void save() {
+        Properties properties = new Properties();
+        properties.putAll(current);
+        GFileUtils.mkdirs(hashesFile.getParentFile());
+        try {
+            GUtil.savePropertiesNoDateComment(properties, new BufferedOutputStream(new FileOutputStream(hashesFile)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.gradle.api.internal.tasks.testing.junit.result;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.Funnels;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.tasks.testing.TestOutputEvent;
+import org.gradle.util.GradleVersion;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Calculates a hash of everything that a report file for a test class is rendered from: the results of the class and its output.
+ */
+public class TestClassContentHasher {
+    private final TestResultsProvider resultsProvider;
+
+    public TestClassContentHasher(TestResultsProvider resultsProvider) {
+        this.resultsProvider = resultsProvider;
+    }
+
+    /**
+     * Hashes the results of the given class, without its output. This is cheap, as the results are in memory.
+     */
+    public HashCode hashResults(TestClassResult classResult) {
+        Hasher hasher = Hashing.md5().newHasher();
+        putString(hasher, GradleVersion.current().getVersion());
+        putString(hasher, classResult.getClassName());
+        hasher.putLong(classResult.getStartTime());
+        for (TestMethodResult methodResult : classResult.getResults()) {
+            putString(hasher, methodResult.getName());
+            putString(hasher, String.valueOf(methodResult.getResultType()));
+            hasher.putLong(methodResult.getDuration());
+            hasher.putLong(methodResult.getEndTime());
+            for (TestFailure failure : methodResult.getFailures()) {
+                putString(hasher, String.valueOf(failure.getMessage()));
+                putString(hasher, String.valueOf(failure.getStackTrace()));
+                putString(hasher, String.valueOf(failure.getExceptionType()));
+            }
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Combines the hash of the results of a class with its output, which is read from the results provider.
+     */
+    public HashCode hashWithOutput(HashCode resultsHash, long classId) {
+        Hasher hasher = Hashing.md5().newHasher();
+        hasher.putBytes(resultsHash.asBytes());
+        for (TestOutputEvent.Destination destination : TestOutputEvent.Destination.values()) {
+            putString(hasher, destination.name());
+            if (resultsProvider.hasOutput(classId, destination)) {
+                Writer writer = new OutputStreamWriter(Funnels.asOutputStream(hasher), Charsets.UTF_8);
+                resultsProvider.writeAllOutput(classId, destination, writer);
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+        return hasher.hash();
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        hasher.putInt(value.length());
+        hasher.putString(value, Charsets.UTF_8);
+    }
+}
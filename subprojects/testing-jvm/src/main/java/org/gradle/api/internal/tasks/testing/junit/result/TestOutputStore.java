@@ -21,17 +21,25 @@ import com.esotericsoftware.kryo.io.Output;
 import com.google.common.collect.ImmutableMap;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.tasks.testing.TestOutputEvent;
-import org.gradle.internal.io.RandomAccessFileInputStream;
 import org.gradle.internal.UncheckedException;
-import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.os.OperatingSystem;
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class TestOutputStore {
+    // Boolean flag, class id, test id and message length
+    private static final int MAX_HEADER_LENGTH = 1 + 9 + 9 + 5;
+    private static final int MESSAGE_CHAR_BUFFER_SIZE = 8192;
 
     private final File resultsDir;
     private final Charset messageStorageCharset;
@@ -217,9 +225,13 @@ public class TestOutputStore {
         }
     }
 
+    /**
+     * Reads the output of tests from the outputs file, using the index file to locate the output of a test class or test.
+     * A reader can be used concurrently by multiple threads.
+     */
     public class Reader implements Closeable {
         private final Index index;
-        private final RandomAccessFile dataFile;
+        private final OutputsFileContent dataFile;
 
         public Reader() {
             File indexFile = getIndexFile();
@@ -263,8 +275,13 @@ public class TestOutputStore {
                 index = rootBuilder.build();
 
                 try {
-                    dataFile = new RandomAccessFile(getOutputsFile(), "r");
-                } catch (FileNotFoundException e) {
+                    // Windows does not allow a file to be deleted while it is mapped, and a mapping is only released when it is garbage collected
+                    if (OperatingSystem.current().isWindows()) {
+                        dataFile = new ChannelOutputsFileContent(outputsFile);
+                    } else {
+                        dataFile = new MappedOutputsFileContent(outputsFile);
+                    }
+                } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
             } else { // no outputs file
@@ -334,53 +351,179 @@ public class TestOutputStore {
             boolean ignoreClassLevel = !allClassOutput && testId != 0;
             boolean ignoreTestLevel = !allClassOutput && testId == 0;
 
+            CharsetDecoder messageDecoder = messageStorageCharset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(MESSAGE_CHAR_BUFFER_SIZE);
+
             try {
-                dataFile.seek(region.start);
-                long maxPos = region.stop - region.start;
-                KryoBackedDecoder decoder = new KryoBackedDecoder(new RandomAccessFileInputStream(dataFile));
-                while (decoder.getReadPosition() <= maxPos) {
-                    boolean readStdout = decoder.readBoolean();
-                    long readClassId = decoder.readSmallLong();
-                    long readTestId = decoder.readSmallLong();
-                    int readLength = decoder.readSmallInt();
+                long position = region.start;
+                while (position <= region.stop) {
+                    ByteBuffer header = dataFile.read(position, MAX_HEADER_LENGTH);
+                    boolean readStdout = header.get() == 1;
+                    long readClassId = readSmallLong(header);
+                    long readTestId = readSmallLong(header);
+                    int readLength = (int) readSmallLong(header);
+
+                    long messageStart = position + header.position();
+                    position = messageStart + readLength;
 
                     boolean isClassLevel = readTestId == 0;
 
                     if (stdout != readStdout || classId != readClassId) {
-                        decoder.skipBytes(readLength);
                         continue;
                     }
 
                     if (ignoreClassLevel && isClassLevel) {
-                        decoder.skipBytes(readLength);
                         continue;
                     }
 
                     if (ignoreTestLevel && !isClassLevel) {
-                        decoder.skipBytes(readLength);
                         continue;
                     }
 
                     if (testId == 0 || testId == readTestId) {
-                        byte[] stringBytes = new byte[readLength];
-                        decoder.readBytes(stringBytes);
-                        String message;
-                        try {
-                            message = new String(stringBytes, messageStorageCharset.name());
-                        } catch (UnsupportedEncodingException e) {
-                            // shouldn't happen
-                            throw UncheckedException.throwAsUncheckedException(e);
-                        }
-
-                        writer.write(message);
-                    } else {
-                        decoder.skipBytes(readLength);
+                        writeMessage(dataFile.read(messageStart, readLength), messageDecoder, chars, writer);
                     }
                 }
             } catch (IOException e1) {
                 throw new UncheckedIOException(e1);
             }
         }
+
+        /**
+         * Decodes the message directly from the outputs file content into the given writer.
+         */
+        private void writeMessage(ByteBuffer message, CharsetDecoder messageDecoder, CharBuffer chars, java.io.Writer writer) throws IOException {
+            messageDecoder.reset();
+            CoderResult result;
+            do {
+                result = messageDecoder.decode(message, chars, true);
+                flushChars(chars, writer);
+            } while (result.isOverflow());
+            do {
+                result = messageDecoder.flush(chars);
+                flushChars(chars, writer);
+            } while (result.isOverflow());
+        }
+
+        private void flushChars(CharBuffer chars, java.io.Writer writer) throws IOException {
+            chars.flip();
+            writer.write(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+            chars.clear();
+        }
+    }
+
+    /**
+     * Reads a variable length long, as written by {@link KryoBackedEncoder#writeSmallLong(long)} and {@link KryoBackedEncoder#writeSmallInt(int)}.
+     */
+    private static long readSmallLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 56; shift += 7) {
+            int b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        // The 9th byte holds the 8 most significant bits
+        return result | (long) (buffer.get() & 0xFF) << 56;
+    }
+
+    /**
+     * The content of the outputs file. Implementations must allow concurrent reads.
+     */
+    private interface OutputsFileContent extends Closeable {
+        /**
+         * Returns a buffer containing the bytes of the file starting at the given position, with at most the given length.
+         * The buffer is shorter when the end of the file is reached.
+         */
+        ByteBuffer read(long position, int maxLength) throws IOException;
+    }
+
+    /**
+     * Maps the outputs file into memory, so that the output of a test can be decoded without copying it into the heap first.
+     */
+    private static class MappedOutputsFileContent implements OutputsFileContent {
+        private static final int SEGMENT_SIZE = 1 << 30;
+        private final long length;
+        private final ByteBuffer[] segments;
+
+        MappedOutputsFileContent(File file) throws IOException {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                // A mapping remains valid after its channel has been closed
+                FileChannel channel = randomAccessFile.getChannel();
+                length = channel.size();
+                segments = new ByteBuffer[(int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+                for (int i = 0; i < segments.length; i++) {
+                    long segmentStart = (long) i * SEGMENT_SIZE;
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, Math.min(SEGMENT_SIZE, length - segmentStart));
+                }
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+
+        @Override
+        public ByteBuffer read(long position, int maxLength) {
+            int readLength = (int) Math.max(0, Math.min(maxLength, length - position));
+            int offset = (int) (position % SEGMENT_SIZE);
+            ByteBuffer segment = segments[(int) (position / SEGMENT_SIZE)].duplicate();
+            if (offset + readLength <= segment.limit()) {
+                segment.position(offset);
+                segment.limit(offset + readLength);
+                return segment.slice();
+            }
+
+            // Content spans two or more segments, which should be rare
+            ByteBuffer content = ByteBuffer.allocate(readLength);
+            long current = position;
+            while (content.hasRemaining()) {
+                ByteBuffer source = segments[(int) (current / SEGMENT_SIZE)].duplicate();
+                source.position((int) (current % SEGMENT_SIZE));
+                if (source.remaining() > content.remaining()) {
+                    source.limit(source.position() + content.remaining());
+                }
+                current += source.remaining();
+                content.put(source);
+            }
+            content.flip();
+            return content;
+        }
+
+        @Override
+        public void close() {
+            // The mapping is released when the buffers are garbage collected
+        }
+    }
+
+    private static class ChannelOutputsFileContent implements OutputsFileContent {
+        private final RandomAccessFile file;
+        private final long length;
+
+        ChannelOutputsFileContent(File file) throws IOException {
+            this.file = new RandomAccessFile(file, "r");
+            this.length = this.file.length();
+        }
+
+        @Override
+        public ByteBuffer read(long position, int maxLength) throws IOException {
+            ByteBuffer content = ByteBuffer.allocate((int) Math.max(0, Math.min(maxLength, length - position)));
+            FileChannel channel = file.getChannel();
+            while (content.hasRemaining()) {
+                if (channel.read(content, position + content.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            content.flip();
+            return content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
     }
 
     // IMPORTANT: return must be closed when done with.
@@ -17,27 +17,36 @@
 package org.gradle.api.internal.tasks.testing.junit.result;
 
 import org.gradle.api.Action;
-import org.gradle.api.UncheckedIOException;
 
 import java.io.IOException;
 
 abstract public class TestOutputStoreBackedResultsProvider implements TestResultsProvider {
     private final TestOutputStore outputStore;
+    private TestOutputStore.Reader reader;
 
     public TestOutputStoreBackedResultsProvider(TestOutputStore outputStore) {
         this.outputStore = outputStore;
     }
 
     protected void withReader(Action<TestOutputStore.Reader> action) {
-        try {
-            TestOutputStore.Reader reader = outputStore.reader();
-            try {
-                action.execute(reader);
-            } finally {
-                reader.close();
-            }
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        action.execute(getReader());
+    }
+
+    /**
+     * Returns the reader shared by all threads that read output from this provider, so that the index is read only once. The reader is closed when this provider is closed.
+     */
+    private synchronized TestOutputStore.Reader getReader() {
+        if (reader == null) {
+            reader = outputStore.reader();
+        }
+        return reader;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+            reader = null;
         }
     }
 }
@@ -17,16 +17,16 @@ package org.gradle.api.internal.tasks.testing.testng;
 
 import org.gradle.api.internal.tasks.testing.detection.AbstractTestFrameworkDetector;
 import org.gradle.api.internal.tasks.testing.detection.ClassFileExtractionManager;
-import org.gradle.api.internal.tasks.testing.detection.TestClassVisitor;
+import org.gradle.api.internal.tasks.testing.detection.TestClassHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 
-class TestNGDetector extends AbstractTestFrameworkDetector<TestNGTestClassDetecter> {
+public class TestNGDetector extends AbstractTestFrameworkDetector<TestNGTestClassDetecter> {
     private static final Logger LOGGER = LoggerFactory.getLogger(TestNGDetector.class);
 
-    TestNGDetector(ClassFileExtractionManager classFileExtractionManager) {
+    public TestNGDetector(ClassFileExtractionManager classFileExtractionManager) {
         super(classFileExtractionManager);
     }
 
@@ -42,12 +42,12 @@ class TestNGDetector extends AbstractTestFrameworkDetector<TestNGTestClassDetect
      */
     @Override
     protected boolean processTestClass(final File testClassFile, boolean superClass) {
-        final TestClassVisitor classVisitor = classVisitor(testClassFile);
+        final TestClassHeader classHeader = classHeader(testClassFile);
 
-        boolean isTest = classVisitor.isTest();
+        boolean isTest = classHeader.isTest();
 
         if (!isTest) {
-            final String superClassName = classVisitor.getSuperClassName();
+            final String superClassName = classHeader.getSuperClassName();
 
             final File superClassFile = getSuperTestClassFile(superClassName);
 
@@ -59,7 +59,7 @@ class TestNGDetector extends AbstractTestFrameworkDetector<TestNGTestClassDetect
             }
         }
 
-        publishTestClass(isTest, classVisitor, superClass);
+        publishTestClass(isTest, classHeader, superClass);
 
         return isTest;
     }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.testing.detection
+
+import com.google.common.hash.HashCode
+import org.gradle.api.GradleException
+import org.gradle.api.internal.cache.CrossBuildInMemoryCacheFactory
+import org.gradle.api.internal.hash.FileHasher
+import org.gradle.api.internal.tasks.testing.TestClassProcessor
+import org.gradle.api.internal.tasks.testing.junit.ATestClass
+import org.gradle.api.internal.tasks.testing.junit.JUnitDetector
+import org.gradle.api.internal.tasks.testing.testng.ATestNGClass
+import org.gradle.api.internal.tasks.testing.testng.TestNGDetector
+import org.gradle.internal.Factory
+import org.gradle.internal.event.DefaultListenerManager
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class AbstractTestFrameworkDetectorTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+    def detectionCache = new TestClassDetectionCache(new CrossBuildInMemoryCacheFactory(new DefaultListenerManager()))
+    def classFileHash = HashCode.fromInt(1)
+    def fileHasher = Stub(FileHasher) {
+        hash(_ as File) >> { classFileHash }
+    }
+    def testClassProcessor = Mock(TestClassProcessor)
+    def classesDir = tmpDir.createDir("classes")
+
+    def "#detectorType.simpleName detects test class"() {
+        def classFile = copyClassFile(testClass)
+
+        when:
+        detect(detectorType, classFile)
+
+        then:
+        1 * testClassProcessor.processTestClass({ it.testClassName == testClass.name })
+        0 * testClassProcessor._
+
+        where:
+        detectorType   | testClass
+        JUnitDetector  | ATestClass
+        TestNGDetector | ATestNGClass
+    }
+
+    def "#detectorType.simpleName reuses cached class header for class file with unchanged content hash"() {
+        def classFile = copyClassFile(testClass)
+        detect(detectorType, classFile)
+
+        when:
+        // Reading this content would fail, so the class header must come from the cache
+        classFile.bytes = "not a class file".bytes
+        detect(detectorType, classFile)
+
+        then:
+        1 * testClassProcessor.processTestClass({ it.testClassName == testClass.name })
+        0 * testClassProcessor._
+
+        where:
+        detectorType   | testClass
+        JUnitDetector  | ATestClass
+        TestNGDetector | ATestNGClass
+    }
+
+    def "#detectorType.simpleName reads class file again when its content hash changes"() {
+        def classFile = copyClassFile(testClass)
+        detect(detectorType, classFile)
+
+        when:
+        classFile.bytes = classBytes(TestClassHeader)
+        classFileHash = HashCode.fromInt(2)
+        detect(detectorType, classFile)
+
+        then:
+        0 * testClassProcessor._
+
+        when:
+        classFile.bytes = "not a class file".bytes
+        classFileHash = HashCode.fromInt(3)
+        detect(detectorType, classFile)
+
+        then:
+        def e = thrown(GradleException)
+        e.message.startsWith("failed to read class file")
+
+        where:
+        detectorType   | testClass
+        JUnitDetector  | ATestClass
+        TestNGDetector | ATestNGClass
+    }
+
+    def "#detectorType.simpleName lists the packages of a library jar once for each jar content hash"() {
+        def classFile = copyClassFile(TestClassHeader)
+        def libraryJar = tmpDir.createFile("lib.jar")
+        def extractionManager = Mock(ClassFileExtractionManager)
+
+        when:
+        detect(detectorType, classFile, [libraryJar], extractionManager)
+        detect(detectorType, classFile, [libraryJar], extractionManager)
+
+        then:
+        1 * extractionManager.listLibraryJarPackages(libraryJar) >> ["org/gradle"]
+        2 * extractionManager.addLibraryJar(libraryJar, ["org/gradle"])
+        0 * extractionManager._
+
+        when:
+        classFileHash = HashCode.fromInt(2)
+        detect(detectorType, classFile, [libraryJar], extractionManager)
+
+        then:
+        1 * extractionManager.listLibraryJarPackages(libraryJar) >> ["org/gradle/changed"]
+        1 * extractionManager.addLibraryJar(libraryJar, ["org/gradle/changed"])
+        0 * extractionManager._
+
+        where:
+        detectorType << [JUnitDetector, TestNGDetector]
+    }
+
+    private void detect(Class<? extends AbstractTestFrameworkDetector> detectorType, File classFile, List<File> testClasspath = [],
+                        ClassFileExtractionManager extractionManager = new ClassFileExtractionManager({ tmpDir.createDir("tmp") } as Factory)) {
+        def detector = detectorType.newInstance(extractionManager)
+        detector.setTestClasses([classesDir] as Set)
+        detector.setTestClasspath(testClasspath as Set)
+        detector.setDetectionCache(detectionCache, fileHasher)
+        detector.startDetection(testClassProcessor)
+        detector.processTestClass(classFile)
+    }
+
+    private TestFile copyClassFile(Class<?> type) {
+        def classFile = classesDir.file(type.name.replace('.', '/') + ".class")
+        classFile.parentFile.mkdirs()
+        classFile.bytes = classBytes(type)
+        return classFile
+    }
+
+    private static byte[] classBytes(Class<?> type) {
+        return type.getResource("/" + type.name.replace('.', '/') + ".class").bytes
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.tasks.testing.junit.report
 
+import org.gradle.api.internal.tasks.testing.junit.result.TestFailure
 import spock.lang.Specification
 
 class ClassTestResultsTest extends Specification {
@@ -23,4 +24,24 @@ class ClassTestResultsTest extends Specification {
         new ClassTestResults(1, 'org.gradle.Test', null).simpleName == 'Test'
         new ClassTestResults(2, 'Test', null).simpleName == 'Test'
     }
+
+    def "keeps counts and failed tests when test results are discarded"() {
+        def model = new AllTestResults()
+        def classResults = model.addTestClass(1, 'org.gradle.Test')
+        model.addTest(1, 'org.gradle.Test', 'passed', 100)
+        model.addTest(1, 'org.gradle.Test', 'failed', 200).addFailure(new TestFailure("failure", "stack trace", "java.lang.AssertionError"))
+        model.addTest(1, 'org.gradle.Test', 'ignored', 0).setIgnored()
+
+        when:
+        classResults.discardTestResults()
+
+        then:
+        classResults.testResults.empty
+        classResults.testCount == 3
+        classResults.failureCount == 1
+        classResults.ignoredCount == 1
+        classResults.duration == 300
+        model.failures*.name == ['failed']
+        model.ignored*.name == ['ignored']
+    }
 }
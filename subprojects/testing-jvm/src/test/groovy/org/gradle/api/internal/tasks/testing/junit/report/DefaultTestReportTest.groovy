@@ -45,11 +45,11 @@ class DefaultTestReportTest extends Specification {
     final TestResultsProvider testResultProvider = Mock()
     final WorkerLeaseService workerLeaseService = Stub(WorkerLeaseService)
 
-    def reportWithMaxThreads(int numThreads) {
+    def reportWithMaxThreads(int numThreads, boolean skipUnchangedClassPages = false) {
         buildOperationExecutor = new DefaultBuildOperationExecutor(
             Mock(BuildOperationListener), Mock(TimeProvider), Mock(ProgressLoggerFactory),
             new DefaultBuildOperationQueueFactory(workerLeaseService), new DefaultExecutorFactory(), numThreads)
-        return new DefaultTestReport(buildOperationExecutor)
+        return new DefaultTestReport(buildOperationExecutor, skipUnchangedClassPages)
     }
 
     def setup() {
@@ -542,6 +542,119 @@ class DefaultTestReportTest extends Specification {
         testClassFile.assertHasStandardError('err:\u0102')
     }
 
+    @Unroll
+    def "overview and package counts match the class pages when many classes are rendered - #numThreads parallel thread(s)"() {
+        given:
+        report = reportWithMaxThreads(numThreads)
+        def testTestResults = manyClassesResults(5, 40)
+
+        when:
+        report.generateReport(testTestResults, reportDir)
+
+        then:
+        def index = results(indexFile)
+        index.assertHasTests(370)
+        index.assertHasFailures(100)
+        index.assertHasIgnored(70)
+
+        (0..<5).each { p ->
+            def packageDetails = index.packageDetails("org.gradle.p${p}")
+            packageDetails.assertNumberOfTests(74)
+            packageDetails.assertNumberOfFailures(20)
+            packageDetails.assertNumberOfIgnored(14)
+
+            def packageFile = results(reportDir.file("packages/org.gradle.p${p}.html"))
+            packageFile.assertHasTests(74)
+            packageFile.assertHasFailures(20)
+            packageFile.assertHasIgnored(14)
+        }
+
+        def classFile = results(reportDir.file('classes/org.gradle.p4.Class0.html'))
+        classFile.assertHasTests(3)
+        classFile.assertHasFailures(1)
+        classFile.assertHasIgnored(1)
+
+        where:
+        numThreads << [ 1, 8 ]
+    }
+
+    def "skips rendering class pages whose results and output have not changed when enabled"() {
+        given:
+        report = reportWithMaxThreads(1, true)
+        def classFile = reportDir.file('classes/org.gradle.Test.html')
+
+        when:
+        report.generateReport(classWithDuration(1000), reportDir)
+        classFile.text = "unchanged"
+        report.generateReport(classWithDuration(1000), reportDir)
+
+        then:
+        classFile.text == "unchanged"
+        results(indexFile).assertHasTests(1)
+
+        when:
+        report.generateReport(classWithDuration(2000), reportDir)
+
+        then:
+        results(classFile).assertHasTests(1)
+    }
+
+    def "renders all class pages and discards previous content hashes when skipping is not enabled"() {
+        given:
+        reportWithMaxThreads(1, true).generateReport(classWithDuration(1000), reportDir)
+        report = reportWithMaxThreads(1)
+        def classFile = reportDir.file('classes/org.gradle.Test.html')
+        classFile.text = "changed"
+
+        when:
+        report.generateReport(classWithDuration(1000), reportDir)
+
+        then:
+        results(classFile).assertHasTests(1)
+        !reportDir.file('.report-content-hashes').exists()
+    }
+
+    TestResultsProvider classWithDuration(long testDuration) {
+        buildResults {
+            testClassResult("org.gradle.Test") {
+                testcase("test") {
+                    duration = testDuration
+                    stdout "standard output"
+                }
+            }
+        }
+    }
+
+    /**
+     * Every class has a passing test, every second class of a package also has a failing test and every third class also has an ignored test.
+     */
+    TestResultsProvider manyClassesResults(int packageCount, int classesPerPackage) {
+        buildResults {
+            for (int p = 0; p < packageCount; p++) {
+                for (int c = 0; c < classesPerPackage; c++) {
+                    def classIndex = c
+                    testClassResult("org.gradle.p${p}.Class${c}") {
+                        testcase("passed") {
+                            duration = 1000
+                        }
+                        if (classIndex % 2 == 0) {
+                            testcase("failed") {
+                                duration = 1000
+                                failure("broken", "stack trace")
+                            }
+                        }
+                        if (classIndex % 3 == 0) {
+                            testcase("ignored") {
+                                duration = 1000
+                                ignore()
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     TestResultsProvider buildResults(Closure closure) {
         ConfigureUtil.configure(closure, new BuildableTestResultsProvider())
     }
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.tooling.internal.adapter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures the traversal of a model that is adapted from a protocol object graph, similar to what an IDE does when importing a multi-project build.
+ */
+@State(Scope.Benchmark)
+public class ProtocolToModelAdapterBenchmark {
+    @Param({"100", "600"})
+    int projectCount;
+
+    @Param({"50"})
+    int dependencyCount;
+
+    private final ProtocolToModelAdapter adapter = new ProtocolToModelAdapter();
+    private ProtocolBuild build;
+
+    @Setup
+    public void prepare() {
+        build = new ProtocolBuild();
+        for (int i = 0; i < projectCount; i++) {
+            ProtocolProject project = new ProtocolProject(":project" + i);
+            for (int j = 0; j < dependencyCount; j++) {
+                project.dependencies.add(new ProtocolDependency("org.test:module" + j + ":1.0", j % 2 == 0));
+            }
+            build.projects.add(project);
+        }
+    }
+
+    @Benchmark
+    public void traverse_adapted_model(Blackhole bh) {
+        BuildView view = adapter.adapt(BuildView.class, build);
+        for (ProjectView project : view.getProjects()) {
+            bh.consume(project.getPath());
+            for (DependencyView dependency : project.getDependencies()) {
+                bh.consume(dependency.getCoordinates());
+                bh.consume(dependency.isExported());
+            }
+        }
+    }
+
+    public interface BuildView {
+        List<ProjectView> getProjects();
+    }
+
+    public interface ProjectView {
+        String getPath();
+
+        List<DependencyView> getDependencies();
+    }
+
+    public interface DependencyView {
+        String getCoordinates();
+
+        boolean isExported();
+    }
+
+    public static class ProtocolBuild {
+        private final List<ProtocolProject> projects = new ArrayList<ProtocolProject>();
+
+        public List<ProtocolProject> getProjects() {
+            return projects;
+        }
+    }
+
+    public static class ProtocolProject {
+        private final String path;
+        private final List<ProtocolDependency> dependencies = new ArrayList<ProtocolDependency>();
+
+        public ProtocolProject(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public List<ProtocolDependency> getDependencies() {
+            return dependencies;
+        }
+    }
+
+    public static class ProtocolDependency {
+        private final String coordinates;
+        private final boolean exported;
+
+        public ProtocolDependency(String coordinates, boolean exported) {
+            this.coordinates = coordinates;
+            this.exported = exported;
+        }
+
+        public String getCoordinates() {
+            return coordinates;
+        }
+
+        public boolean isExported() {
+            return exported;
+        }
+    }
+}
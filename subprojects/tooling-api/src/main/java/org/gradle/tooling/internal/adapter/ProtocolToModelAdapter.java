@@ -16,11 +16,10 @@
 package org.gradle.tooling.internal.adapter;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.MapMaker;
 import org.gradle.api.Nullable;
 import org.gradle.internal.UncheckedException;
 import org.gradle.internal.reflect.DirectInstantiator;
-import org.gradle.internal.time.CountdownTimer;
-import org.gradle.internal.time.Timers;
 import org.gradle.internal.typeconversion.EnumFromCharSequenceNotationParser;
 import org.gradle.internal.typeconversion.NotationConverterToNotationParserAdapter;
 import org.gradle.internal.typeconversion.NotationParser;
@@ -48,7 +47,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Adapts some source object to some target view type.
@@ -402,37 +402,26 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
     }
 
     private static class MethodInvocationCache {
-        private final Map<MethodInvocationKey, Optional<Method>> store = new HashMap<MethodInvocationKey, Optional<Method>>();
-        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
-        private final static long MINIMAL_CLEANUP_INTERVAL = 30000;
+        // Keys are weak and methods are softly referenced, so that the cache doesn't prevent the classes of the source objects
+        // from being collected. The methods for each class are held in a separate map, so that a lookup doesn't need to
+        // allocate any references or take any locks.
+        private final ConcurrentMap<Class<?>, ConcurrentMap<MethodSignature, SoftReference<Optional<Method>>>> store = new MapMaker().weakKeys().makeMap();
 
         // For stats we don't really care about thread safety
         private int cacheMiss;
         private int cacheHit;
-        private int evict;
 
-        private CountdownTimer cleanupTimer = Timers.startTimer(MINIMAL_CLEANUP_INTERVAL);
-
-        private static class MethodInvocationKey {
-            private final SoftReference<Class<?>> lookupClass;
+        private static class MethodSignature {
             private final String methodName;
-            private final SoftReference<Class<?>[]> parameterTypes;
+            private final Class<?>[] parameterTypes;
             private final int hashCode;
 
-            private MethodInvocationKey(Class<?> lookupClass, String methodName, Class<?>[] parameterTypes) {
-                this.lookupClass = new SoftReference<Class<?>>(lookupClass);
+            private MethodSignature(String methodName, Class<?>[] parameterTypes) {
                 this.methodName = methodName;
-                this.parameterTypes = new SoftReference<Class<?>[]>(parameterTypes);
+                this.parameterTypes = parameterTypes;
                 // hashcode will always be used, so we precompute it in order to make sure we
                 // won't compute it multiple times during comparisons
-                int result = lookupClass != null ? lookupClass.hashCode() : 0;
-                result = 31 * result + (methodName != null ? methodName.hashCode() : 0);
-                result = 31 * result + Arrays.hashCode(parameterTypes);
-                this.hashCode = result;
-            }
-
-            public boolean isDirty() {
-                return lookupClass.get() == null || parameterTypes.get() == null;
+                this.hashCode = 31 * methodName.hashCode() + Arrays.hashCode(parameterTypes);
             }
 
             @Override
@@ -444,38 +433,8 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
                     return false;
                 }
 
-                MethodInvocationKey that = (MethodInvocationKey) o;
-
-                if (isDirty() && that.isDirty()) {
-                    return true;
-                }
-                if (!eq(lookupClass, that.lookupClass)) {
-                    return false;
-                }
-                if (!methodName.equals(that.methodName)) {
-                    return false;
-                }
-                return eq(parameterTypes, that.parameterTypes);
-
-            }
-
-            private static boolean eq(SoftReference<?> aRef, SoftReference<?> bRef) {
-                Object a = aRef.get();
-                Object b = bRef.get();
-                return eq(a, b);
-            }
-
-            private static boolean eq(Object a, Object b) {
-                if (a == b) {
-                    return true;
-                }
-                if (a == null) {
-                    return false;
-                }
-                if (a.getClass().isArray()) {
-                    return Arrays.equals((Object[]) a, (Object[]) b);
-                }
-                return a.equals(b);
+                MethodSignature that = (MethodSignature) o;
+                return methodName.equals(that.methodName) && Arrays.equals(parameterTypes, that.parameterTypes);
             }
 
             @Override
@@ -488,60 +447,27 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
             Class<?> owner = invocation.getDelegate().getClass();
             String name = invocation.getName();
             Class<?>[] parameterTypes = invocation.getParameterTypes();
-            MethodInvocationKey key = new MethodInvocationKey(
-                owner,
-                name,
-                parameterTypes
-            );
-            lock.readLock().lock();
-            Optional<Method> cached = store.get(key);
+
+            ConcurrentMap<MethodSignature, SoftReference<Optional<Method>>> methods = store.get(owner);
+            if (methods == null) {
+                methods = new ConcurrentHashMap<MethodSignature, SoftReference<Optional<Method>>>();
+                ConcurrentMap<MethodSignature, SoftReference<Optional<Method>>> existing = store.putIfAbsent(owner, methods);
+                if (existing != null) {
+                    methods = existing;
+                }
+            }
+
+            MethodSignature signature = new MethodSignature(name, parameterTypes);
+            SoftReference<Optional<Method>> reference = methods.get(signature);
+            Optional<Method> cached = reference == null ? null : reference.get();
             if (cached == null) {
                 cacheMiss++;
-                lock.readLock().unlock();
-                lock.writeLock().lock();
-                try {
-                    cached = store.get(key);
-                    if (cached == null) {
-                        cached = lookup(owner, name, parameterTypes);
-                        if (cacheMiss % 10 == 0) {
-                            removeDirtyEntries();
-                        }
-                        store.put(key, cached);
-                    }
-                    lock.readLock().lock();
-                } finally {
-                    lock.writeLock().unlock();
-                }
+                cached = lookup(owner, name, parameterTypes);
+                methods.put(signature, new SoftReference<Optional<Method>>(cached));
             } else {
                 cacheHit++;
             }
-            try {
-                return cached.orNull();
-            } finally {
-                lock.readLock().unlock();
-            }
-        }
-
-        /**
-         * Removes dirty entries from the cache. Calling System.currentTimeMillis() is costly so we should try to limit calls to this method. This method will only trigger cleanup at most once per
-         * 30s.
-         */
-        private void removeDirtyEntries() {
-            if (!cleanupTimer.hasExpired()) {
-                return;
-            }
-            lock.writeLock().lock();
-            try {
-                for (MethodInvocationKey key : new LinkedList<MethodInvocationKey>(store.keySet())) {
-                    if (key.isDirty()) {
-                        evict++;
-                        store.remove(key);
-                    }
-                }
-            } finally {
-                cleanupTimer.reset();
-                lock.writeLock().unlock();
-            }
+            return cached.orNull();
         }
 
         private static Optional<Method> lookup(Class<?> sourceClass, String methodName, Class<?>[] parameterTypes) {
@@ -574,7 +500,7 @@ public class ProtocolToModelAdapter implements ObjectGraphAdapter {
 
         @Override
         public String toString() {
-            return "Cache size: " + store.size() + " Hits: " + cacheHit + " Miss: " + cacheMiss + " Evicted: " + evict;
+            return "Cache size: " + store.size() + " Hits: " + cacheHit + " Miss: " + cacheMiss;
         }
     }
 
@@ -25,8 +25,8 @@ import org.gradle.util.CollectionUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 
 public class WorkerDaemonClientsManager {
 
@@ -49,9 +49,10 @@ public class WorkerDaemonClientsManager {
 
     WorkerDaemonClient reserveIdleClient(DaemonForkOptions forkOptions, List<WorkerDaemonClient> clients) {
         synchronized (lock) {
-            Iterator<WorkerDaemonClient> it = clients.iterator();
-            while (it.hasNext()) {
-                WorkerDaemonClient candidate = it.next();
+            // Prefer the most recently released client, as it is the most likely to hold warm state (loaded classes, compiler caches) for this kind of work
+            ListIterator<WorkerDaemonClient> it = clients.listIterator(clients.size());
+            while (it.hasPrevious()) {
+                WorkerDaemonClient candidate = it.previous();
                 if (candidate.isCompatibleWith(forkOptions)) {
                     it.remove();
                     return candidate;
@@ -24,6 +24,7 @@ import org.gradle.internal.work.WorkerLeaseRegistry;
 import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease;
 import org.gradle.process.internal.health.memory.MemoryManager;
 import org.gradle.process.internal.health.memory.TotalPhysicalMemoryProvider;
+import org.gradle.process.internal.health.memory.WorkerMemoryBudget;
 
 import java.io.File;
 
@@ -37,28 +38,36 @@ public class WorkerDaemonFactory implements WorkerFactory, Stoppable {
     private final WorkerDaemonExpiration workerDaemonExpiration;
     private final WorkerLeaseRegistry workerLeaseRegistry;
     private final BuildOperationExecutor buildOperationExecutor;
+    private final WorkerMemoryBudget memoryBudget;
 
-    public WorkerDaemonFactory(WorkerDaemonClientsManager clientsManager, MemoryManager memoryManager, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor) {
+    public WorkerDaemonFactory(WorkerDaemonClientsManager clientsManager, MemoryManager memoryManager, WorkerLeaseRegistry workerLeaseRegistry, BuildOperationExecutor buildOperationExecutor, WorkerMemoryBudget memoryBudget) {
         this.clientsManager = clientsManager;
         this.memoryManager = memoryManager;
         this.workerDaemonExpiration = new WorkerDaemonExpiration(clientsManager, getTotalPhysicalMemory());
         memoryManager.addMemoryHolder(workerDaemonExpiration);
         this.workerLeaseRegistry = workerLeaseRegistry;
         this.buildOperationExecutor = buildOperationExecutor;
+        this.memoryBudget = memoryBudget;
     }
 
     @Override
     public <T extends WorkSpec> Worker<T> getWorker(final Class<? extends WorkerProtocol<T>> workerImplementationClass, final File workingDir, final DaemonForkOptions forkOptions) {
         return new Worker<T>() {
             public DefaultWorkResult execute(T spec, WorkerLease parentWorkerWorkerLease, BuildOperationState parentBuildOperation) {
-                WorkerDaemonClient<T> client = clientsManager.reserveIdleClient(forkOptions);
-                if (client == null) {
-                    client = clientsManager.reserveNewClient(workerImplementationClass, workingDir, forkOptions);
-                }
+                // Queue the work while the heap declared by busy worker processes would exceed the memory budget
+                WorkerMemoryBudget.Reservation reservation = memoryBudget.reserve(forkOptions.getMaxHeapSize());
                 try {
-                    return client.execute(spec, parentWorkerWorkerLease, parentBuildOperation);
+                    WorkerDaemonClient<T> client = clientsManager.reserveIdleClient(forkOptions);
+                    if (client == null) {
+                        client = clientsManager.reserveNewClient(workerImplementationClass, workingDir, forkOptions);
+                    }
+                    try {
+                        return client.execute(spec, parentWorkerWorkerLease, parentBuildOperation);
+                    } finally {
+                        clientsManager.release(client);
+                    }
                 } finally {
-                    clientsManager.release(client);
+                    reservation.release();
                 }
             }
 
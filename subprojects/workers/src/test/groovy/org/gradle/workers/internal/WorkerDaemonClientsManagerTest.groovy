@@ -54,6 +54,17 @@ class WorkerDaemonClientsManagerTest extends ConcurrentSpecification {
         input == [noMatch] //match removed from input
     }
 
+    def "reserves most recently released client when several match"() {
+        def match1 = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true }
+        def match2 = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> true }
+        def noMatch = Stub(WorkerDaemonClient) { isCompatibleWith(_) >> false }
+        def input = [match1, match2, noMatch]
+
+        expect:
+        manager.reserveIdleClient(options, input) == match2
+        input == [match1, noMatch]
+    }
+
     def "reserves new client"() {
         def newClient = Stub(WorkerDaemonClient)
         starter.startDaemon(serverImpl.class, workingDir, options) >> newClient
@@ -21,6 +21,7 @@ import org.gradle.internal.progress.BuildOperationState
 import org.gradle.internal.work.WorkerLeaseRegistry
 import org.gradle.internal.work.WorkerLeaseRegistry.WorkerLease
 import org.gradle.process.internal.health.memory.MemoryManager
+import org.gradle.process.internal.health.memory.WorkerMemoryBudget
 import spock.lang.Specification
 import spock.lang.Subject
 
@@ -33,8 +34,10 @@ class WorkerDaemonFactoryTest extends Specification {
     def buildOperationExecutor = Mock(BuildOperationExecutor)
     def workerOperation = Mock(WorkerLease)
     def buildOperation= Mock(BuildOperationState)
+    def memoryBudget = Mock(WorkerMemoryBudget)
+    def memoryReservation = Mock(WorkerMemoryBudget.Reservation)
 
-    @Subject factory = new WorkerDaemonFactory(clientsManager, memoryManager, buildOperationWorkerRegistry, buildOperationExecutor)
+    @Subject factory = new WorkerDaemonFactory(clientsManager, memoryManager, buildOperationWorkerRegistry, buildOperationExecutor, memoryBudget)
 
     def workingDir = new File("some-dir")
     def options = Stub(DaemonForkOptions)
@@ -57,6 +60,9 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * buildOperationWorkerRegistry.getCurrentWorkerLease() >> workerOperation
         1 * buildOperationExecutor.getCurrentOperation() >> buildOperation
 
+        then:
+        1 * memoryBudget.reserve(_) >> memoryReservation
+
         then:
         1 * clientsManager.reserveIdleClient(options) >> null
 
@@ -68,6 +74,9 @@ class WorkerDaemonFactoryTest extends Specification {
 
         then:
         1 * clientsManager.release(client)
+
+        then:
+        1 * memoryReservation.release()
         0 * _._
     }
 
@@ -79,6 +88,9 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * buildOperationWorkerRegistry.getCurrentWorkerLease() >> workerOperation
         1 * buildOperationExecutor.getCurrentOperation() >> buildOperation
 
+        then:
+        1 * memoryBudget.reserve(_) >> memoryReservation
+
         then:
         1 * clientsManager.reserveIdleClient(options) >> client
 
@@ -87,6 +99,9 @@ class WorkerDaemonFactoryTest extends Specification {
 
         then:
         1 * clientsManager.release(client)
+
+        then:
+        1 * memoryReservation.release()
         0 * _._
     }
 
@@ -98,6 +113,9 @@ class WorkerDaemonFactoryTest extends Specification {
         1 * buildOperationWorkerRegistry.getCurrentWorkerLease() >> workerOperation
         1 * buildOperationExecutor.getCurrentOperation() >> buildOperation
 
+        then:
+        1 * memoryBudget.reserve(_) >> memoryReservation
+
         then:
         1 * clientsManager.reserveIdleClient(options) >> client
 
@@ -107,14 +125,35 @@ class WorkerDaemonFactoryTest extends Specification {
         then:
         thrown(RuntimeException)
         1 * clientsManager.release(client)
+
+        then:
+        1 * memoryReservation.release()
         0 * _._
     }
 
+    def "waits for memory budget before reserving a client"() {
+        def forkOptions = Stub(DaemonForkOptions) { getMaxHeapSize() >> "2g" }
+
+        when:
+        factory.getWorker(workerProtocolImplementation.class, workingDir, forkOptions).execute(spec, workerOperation, buildOperation)
+
+        then:
+        1 * memoryBudget.reserve("2g") >> memoryReservation
+
+        then:
+        1 * clientsManager.reserveIdleClient(forkOptions) >> client
+        1 * client.execute(spec, workerOperation, buildOperation)
+        1 * clientsManager.release(client)
+
+        then:
+        1 * memoryReservation.release()
+    }
+
     def "registers/deregisters a worker daemon expiration with the memory manager"() {
         WorkerDaemonExpiration workerDaemonExpiration
 
         when:
-        def factory = new WorkerDaemonFactory(clientsManager, memoryManager, buildOperationWorkerRegistry, buildOperationExecutor)
+        def factory = new WorkerDaemonFactory(clientsManager, memoryManager, buildOperationWorkerRegistry, buildOperationExecutor, memoryBudget)
 
         then:
         1 * memoryManager.addMemoryHolder(_) >> { args -> workerDaemonExpiration = args[0] }